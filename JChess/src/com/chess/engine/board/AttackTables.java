@@ -0,0 +1,260 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// AttackTables holds precomputed attack bit boards so that move generation is a table lookup instead of a walk over
+// the tiles. Knights, kings and pawns have one attack set per tile. Sliding pieces use magic bit boards: the blockers
+// on a slider's rays are multiplied by a magic number and shifted, which gives a perfect index into that tile's table
+// of attack sets.
+public class AttackTables {
+
+    // Row and column deltas of the tiles each leaping piece jumps to
+    private static final int[][] KNIGHT_OFFSETS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
+                                                   {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_OFFSETS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1},
+                                                 {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    private static final long[] KNIGHT_ATTACKS = initLeaperAttacks(KNIGHT_OFFSETS);
+    private static final long[] KING_ATTACKS = initLeaperAttacks(KING_OFFSETS);
+    // Indexed [alliance.ordinal()][tileCoordinate]
+    private static final long[][] PAWN_ATTACKS = initPawnAttacks();
+
+    // Row and column deltas of the rays each sliding piece moves along
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    // Magic numbers for tile coordinates 0 (a8) to 63 (h1), found offline by a seeded random search
+    private static final long[] ROOK_MAGICS = {
+            0x0280008010624006L, 0x4040004020001000L, 0x28801000815A2002L, 0x23001000C9210004L,
+            0x0600086010040A01L, 0x41000201000400C8L, 0x0880010000800200L, 0x0080065121000080L,
+            0x0200802080004004L, 0x0001400040201000L, 0x0000801000200080L, 0xD111805001810800L,
+            0x1302800800240080L, 0x0012001084080200L, 0x1004000802840110L, 0x400200020100A04CL,
+            0x0040008000204084L, 0x0800808040002008L, 0x0020050020110440L, 0x0020828008001000L,
+            0x00C0050008010010L, 0x0004004002004100L, 0x0000040001020810L, 0x4080020010846704L,
+            0x1440208080004000L, 0x0600400080802000L, 0x00A1004100200013L, 0x0150008080080014L,
+            0x52210011002800A4L, 0x0042020080800400L, 0x0240021C00091088L, 0x480002C2002A8304L,
+            0xA200400182800020L, 0x0010082004404001L, 0x2001200081801000L, 0x0000801001801800L,
+            0x2418008008800401L, 0x0414008044800200L, 0x0041025004004801L, 0x1000800040800100L,
+            0x4200882840008000L, 0x8442200050044008L, 0x8050080024002002L, 0x0001002010010008L,
+            0x2000080004008080L, 0x1200040002008080L, 0x2050010002008080L, 0x28020251048A0004L,
+            0x0000400080006180L, 0x0C04200040009280L, 0x0001100080200480L, 0x030C082100100100L,
+            0x0823000408001100L, 0x0400040080020080L, 0x0000102221080400L, 0x0420384281040200L,
+            0x0685001A00802042L, 0xA840024082122105L, 0x33000902A0001043L, 0x450008B000210015L,
+            0x60020020F0240802L, 0x8022000810010482L, 0x0940020081102804L, 0x0010009040210402L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x8920010208010020L, 0x0004140802103325L, 0x100810810A091009L, 0x2204040880094008L,
+            0x4002021020408900L, 0x0C00821040500024L, 0x0400440404403101L, 0x0900202108084008L,
+            0x08001020081084A0L, 0x0810820822208204L, 0x00010810C4088080L, 0x0012044104210000L,
+            0x0000071040002004L, 0x0004820804844184L, 0x1004004128084000L, 0x1508010402010424L,
+            0x1008250620080200L, 0x4620000408822040L, 0x0410000210820008L, 0x8000800808210005L,
+            0x00A1011820081000L, 0x2080808440602004L, 0x0922808708011000L, 0x0028284101011020L,
+            0x02A0106004040804L, 0x8022500620040088L, 0x0288012008020220L, 0x0008808018020202L,
+            0x0001001029004004L, 0x0000808008080402L, 0x008202020080D012L, 0x004A0384514C00A0L,
+            0x9004420800C01000L, 0x0004016008C80200L, 0x0424020100020402L, 0x0812008020420201L,
+            0x2028820080980480L, 0x0810064A00004310L, 0x0014A82080020082L, 0x11D8060020045104L,
+            0x0880820840002000L, 0x0042008209002002L, 0x0500201050000800L, 0x0C80B02204208801L,
+            0x0020102010400200L, 0x100410C082010100L, 0x0130810214100488L, 0x0581880602400080L,
+            0x8081080110880000L, 0x1800210410A42040L, 0x200200840088184AL, 0x1080120084040281L,
+            0x8001050820884010L, 0xC000910230010002L, 0x0020084101040008L, 0x0084900082228010L,
+            0x600301B804020800L, 0x0800C02421080840L, 0x0044060100809000L, 0x2200404C20411080L,
+            0x0104400204050410L, 0x6004020414186200L, 0x4042400202022200L, 0x061002100042810AL
+    };
+
+    // The tiles whose occupancy can block each slider (the rays without their last tile)
+    private static final long[] ROOK_MASKS = initSliderMasks(ROOK_DIRECTIONS);
+    private static final long[] BISHOP_MASKS = initSliderMasks(BISHOP_DIRECTIONS);
+
+    private static final int[] ROOK_SHIFTS = initShifts(ROOK_MASKS);
+    private static final int[] BISHOP_SHIFTS = initShifts(BISHOP_MASKS);
+
+    private static final long[][] ROOK_ATTACKS = initSliderAttacks(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS,
+                                                                   ROOK_SHIFTS);
+    private static final long[][] BISHOP_ATTACKS = initSliderAttacks(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS,
+                                                                     BISHOP_SHIFTS);
+
+    // Indexed [tileCoordinate][tileCoordinate]. For two tiles on a common row, column or diagonal, BETWEEN holds the
+    // tiles strictly between them and LINE the whole line through both; for any other pair both are empty.
+    private static final long[][] BETWEEN = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+    private static final long[][] LINE = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+    static {
+        initLines(ROOK_DIRECTIONS);
+        initLines(BISHOP_DIRECTIONS);
+    }
+
+    // Throws a runtime error whenever someone tries to instantiate because we just want it to be a utility class.
+    private AttackTables() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    // Returns the tiles a knight on the given tile attacks
+    public static long knightAttacks(final int tileCoordinate) {
+        return KNIGHT_ATTACKS[tileCoordinate];
+    }
+
+    // Returns the tiles a king on the given tile attacks
+    public static long kingAttacks(final int tileCoordinate) {
+        return KING_ATTACKS[tileCoordinate];
+    }
+
+    // Returns the tiles a pawn of the given alliance on the given tile attacks (its two forward diagonals)
+    public static long pawnAttacks(final Alliance alliance, final int tileCoordinate) {
+        return PAWN_ATTACKS[alliance.ordinal()][tileCoordinate];
+    }
+
+    // Returns the tiles a rook on the given tile attacks, given the occupied tiles of the board
+    public static long rookAttacks(final int tileCoordinate, final long occupancy) {
+        return ROOK_ATTACKS[tileCoordinate][(int) (((occupancy & ROOK_MASKS[tileCoordinate]) *
+                ROOK_MAGICS[tileCoordinate]) >>> ROOK_SHIFTS[tileCoordinate])];
+    }
+
+    // Returns the tiles a bishop on the given tile attacks, given the occupied tiles of the board
+    public static long bishopAttacks(final int tileCoordinate, final long occupancy) {
+        return BISHOP_ATTACKS[tileCoordinate][(int) (((occupancy & BISHOP_MASKS[tileCoordinate]) *
+                BISHOP_MAGICS[tileCoordinate]) >>> BISHOP_SHIFTS[tileCoordinate])];
+    }
+
+    // Returns the tiles a queen on the given tile attacks, given the occupied tiles of the board
+    public static long queenAttacks(final int tileCoordinate, final long occupancy) {
+        return rookAttacks(tileCoordinate, occupancy) | bishopAttacks(tileCoordinate, occupancy);
+    }
+
+    // Returns the tiles strictly between two tiles on a common row, column or diagonal, and no tiles otherwise
+    public static long betweenTiles(final int firstTile, final int secondTile) {
+        return BETWEEN[firstTile][secondTile];
+    }
+
+    // Returns the whole row, column or diagonal through both tiles, and no tiles if they do not share one
+    public static long lineThrough(final int firstTile, final int secondTile) {
+        return LINE[firstTile][secondTile];
+    }
+
+    // Returns the pieces of the attacking alliance that attack the given tile. Only pieces on the given occupancy are
+    // counted, and it is also what blocks the sliding pieces, so callers can ask about a position with pieces lifted.
+    public static long attackersTo(final BitBoardPosition position, final int tileCoordinate, final Alliance attacker,
+                                   final long occupancy) {
+        final long queens = position.getPieceBitBoard(attacker, PieceType.QUEEN);
+        final Alliance defender = attacker.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        return ((pawnAttacks(defender, tileCoordinate) & position.getPieceBitBoard(attacker, PieceType.PAWN)) |
+                (knightAttacks(tileCoordinate) & position.getPieceBitBoard(attacker, PieceType.KNIGHT)) |
+                (kingAttacks(tileCoordinate) & position.getPieceBitBoard(attacker, PieceType.KING)) |
+                (bishopAttacks(tileCoordinate, occupancy) &
+                 (position.getPieceBitBoard(attacker, PieceType.BISHOP) | queens)) |
+                (rookAttacks(tileCoordinate, occupancy) &
+                 (position.getPieceBitBoard(attacker, PieceType.ROOK) | queens))) & occupancy;
+    }
+
+    // Generates the attack set of every tile for a piece that jumps by the given row and column deltas. Deltas that
+    // would leave the board are dropped, so there is no wrapping from one edge column to the other.
+    private static long[] initLeaperAttacks(final int[][] offsets) {
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final int row = i / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = i % BoardUtils.NUM_TILES_PER_ROW;
+            for (final int[] offset : offsets) {
+                if (isOnBoard(row + offset[0], column + offset[1])) {
+                    attacks[i] |= BitBoards.tileMask((row + offset[0]) * BoardUtils.NUM_TILES_PER_ROW +
+                                                     column + offset[1]);
+                }
+            }
+        }
+        return attacks;
+    }
+
+    // Pawns attack the two diagonal tiles one row ahead of them in their alliance's direction
+    private static long[][] initPawnAttacks() {
+        final long[][] attacks = new long[Alliance.values().length][];
+        for (final Alliance alliance : Alliance.values()) {
+            final int direction = alliance.getDirection();
+            attacks[alliance.ordinal()] = initLeaperAttacks(new int[][] {{direction, -1}, {direction, 1}});
+        }
+        return attacks;
+    }
+
+    private static long[] initSliderMasks(final int[][] directions) {
+        final long[] masks = new long[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            // The last tile of each ray is never a blocker, since nothing lies behind it
+            masks[i] = slowSliderAttacks(i, BitBoards.EMPTY, directions, true);
+        }
+        return masks;
+    }
+
+    private static int[] initShifts(final long[] masks) {
+        final int[] shifts = new int[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            shifts[i] = 64 - BitBoards.count(masks[i]);
+        }
+        return shifts;
+    }
+
+    // Fills each tile's table by walking the rays once for every subset of its blocker mask
+    private static long[][] initSliderAttacks(final int[][] directions, final long[] masks, final long[] magics,
+                                              final int[] shifts) {
+        final long[][] attacks = new long[BoardUtils.NUM_TILES][];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            attacks[i] = new long[1 << BitBoards.count(masks[i])];
+            long blockers = BitBoards.EMPTY;
+            do {
+                final int index = (int) ((blockers * magics[i]) >>> shifts[i]);
+                attacks[i][index] = slowSliderAttacks(i, blockers, directions, false);
+                blockers = (blockers - masks[i]) & masks[i]; // next subset of the mask
+            } while (blockers != BitBoards.EMPTY);
+        }
+        return attacks;
+    }
+
+    // Walks every ray from the tile until it leaves the board or hits a blocker. When excludeEdges is set the last
+    // tile of each ray is left out.
+    private static long slowSliderAttacks(final int tileCoordinate, final long blockers, final int[][] directions,
+                                          final boolean excludeEdges) {
+        long attacks = BitBoards.EMPTY;
+        final int row = tileCoordinate / BoardUtils.NUM_TILES_PER_ROW;
+        final int column = tileCoordinate % BoardUtils.NUM_TILES_PER_ROW;
+        for (final int[] direction : directions) {
+            int candidateRow = row + direction[0];
+            int candidateColumn = column + direction[1];
+            while (isOnBoard(candidateRow, candidateColumn) &&
+                   (!excludeEdges || isOnBoard(candidateRow + direction[0], candidateColumn + direction[1]))) {
+                final int candidate = candidateRow * BoardUtils.NUM_TILES_PER_ROW + candidateColumn;
+                attacks |= BitBoards.tileMask(candidate);
+                if (BitBoards.isSet(blockers, candidate)) {
+                    break;
+                }
+                candidateRow += direction[0];
+                candidateColumn += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    // Walks every ray from every tile, filling BETWEEN and LINE for each tile the ray reaches
+    private static void initLines(final int[][] directions) {
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final int row = i / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = i % BoardUtils.NUM_TILES_PER_ROW;
+            for (final int[] direction : directions) {
+                // The line is the ray in this direction, the ray in the opposite direction and the tile itself
+                final long line = BitBoards.tileMask(i) | slowSliderAttacks(i, BitBoards.EMPTY, new int[][] {
+                        direction, {-direction[0], -direction[1]}}, false);
+                long between = BitBoards.EMPTY;
+                int candidateRow = row + direction[0];
+                int candidateColumn = column + direction[1];
+                while (isOnBoard(candidateRow, candidateColumn)) {
+                    final int candidate = candidateRow * BoardUtils.NUM_TILES_PER_ROW + candidateColumn;
+                    BETWEEN[i][candidate] = between;
+                    LINE[i][candidate] = line;
+                    between |= BitBoards.tileMask(candidate);
+                    candidateRow += direction[0];
+                    candidateColumn += direction[1];
+                }
+            }
+        }
+    }
+
+    private static boolean isOnBoard(final int row, final int column) {
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_COL && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+}
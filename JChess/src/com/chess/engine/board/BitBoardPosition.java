@@ -0,0 +1,17 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// A position that can be read as bit boards. Implemented by both the immutable Board and the mutable SearchBoard so
+// that code working on the bit boards (evaluation, attack detection) is shared between them.
+public interface BitBoardPosition {
+    // Returns the bit board of the pieces of the given alliance and type
+    long getPieceBitBoard(Alliance alliance, PieceType pieceType);
+
+    // Returns the bit board of every tile occupied by a piece of the given alliance
+    long getOccupancy(Alliance alliance);
+
+    // Returns the bit board of every occupied tile
+    long getOccupancy();
+}
@@ -0,0 +1,54 @@
+package com.chess.engine.board;
+
+// A bit board is a long where bit i is set when tile coordinate i (0 = a8, 63 = h1) is part of the set. BitBoards
+// holds the masks and helpers shared by every piece of code that works on those sets.
+public class BitBoards {
+
+    public static final long EMPTY = 0L;
+    public static final long ALL_TILES = ~0L;
+
+    // Masks for the columns and ranks, matching the boolean arrays in BoardUtils.
+    public static final long FIRST_COLUMN = 0x0101010101010101L;
+    public static final long SECOND_COLUMN = FIRST_COLUMN << 1;
+    public static final long SEVENTH_COLUMN = FIRST_COLUMN << 6;
+    public static final long EIGHTH_COLUMN = FIRST_COLUMN << 7;
+
+    public static final long EIGHTH_RANK = 0xFFL;
+    public static final long SEVENTH_RANK = EIGHTH_RANK << 8;
+    public static final long SIXTH_RANK = EIGHTH_RANK << 16;
+    public static final long FIFTH_RANK = EIGHTH_RANK << 24;
+    public static final long FOURTH_RANK = EIGHTH_RANK << 32;
+    public static final long THIRD_RANK = EIGHTH_RANK << 40;
+    public static final long SECOND_RANK = EIGHTH_RANK << 48;
+    public static final long FIRST_RANK = EIGHTH_RANK << 56;
+
+    // Throws a runtime error whenever someone tries to instantiate because we just want it to be a utility class.
+    private BitBoards() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    // Returns a bit board containing only the given tile coordinate
+    public static long tileMask(final int tileCoordinate) {
+        return 1L << tileCoordinate;
+    }
+
+    // Returns a boolean representing whether or not the given tile coordinate is in the bit board
+    public static boolean isSet(final long bitBoard, final int tileCoordinate) {
+        return (bitBoard & (1L << tileCoordinate)) != 0;
+    }
+
+    // Returns the lowest tile coordinate in a (non-empty) bit board
+    public static int firstTile(final long bitBoard) {
+        return Long.numberOfTrailingZeros(bitBoard);
+    }
+
+    // Returns the bit board with its lowest tile coordinate removed
+    public static long withoutFirstTile(final long bitBoard) {
+        return bitBoard & (bitBoard - 1);
+    }
+
+    // Returns the number of tiles in the bit board
+    public static int count(final long bitBoard) {
+        return Long.bitCount(bitBoard);
+    }
+}
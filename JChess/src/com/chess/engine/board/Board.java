@@ -8,35 +8,62 @@ import com.chess.engine.player.WhitePlayer;
 
 import java.util.*;
 
-public class Board {
+public class Board implements BitBoardPosition {
+    // A game is drawn once this many moves in a row, counted for both players, have neither captured nor moved a pawn
+    public static final int FIFTY_MOVE_RULE_PLIES = 100;
+
+    // The position history of a board after a capture or pawn move
+    static final long[] NO_POSITIONS = new long[0];
+
     // List of tiles representing the game board at a given point
     private final List<Tile> gameBoard;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
     private final Pawn enPassantPawn;
 
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
-    private final Player currentPlayer;
+    // One bit board per alliance and piece type, indexed [alliance.ordinal()][pieceType.ordinal()], plus the
+    // occupancy masks derived from them
+    private final long[][] pieceBitBoards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long occupancy;
 
+    private final Alliance nextMoveMaker;
     private final Move transitionMove;
+    private final int castlingRights;
+    // Hash of the position, see Zobrist
+    private final long zobristKey;
+    // The number of moves since the last capture or pawn move, and the keys of the positions those moves went through,
+    // oldest first. No position before a capture or pawn move can ever come back, so those are all that can repeat.
+    private final int halfmoveClock;
+    private final long[] positionHistory;
+
+    // The legal moves and the players are only computed the first time they are asked for, and then kept. Most
+    // boards built during a search are only ever evaluated, and are never asked for their opponent's moves.
+    private Collection<Move> whiteStandardLegalMoves;
+    private Collection<Move> blackStandardLegalMoves;
+    private WhitePlayer whitePlayer;
+    private BlackPlayer blackPlayer;
 
     // Constructs a Board given a builder
     private Board(final Builder builder) {
         this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+        this.pieceBitBoards = createPieceBitBoards(builder);
+        this.whiteOccupancy = calculateOccupancy(this.pieceBitBoards[Alliance.WHITE.ordinal()]);
+        this.blackOccupancy = calculateOccupancy(this.pieceBitBoards[Alliance.BLACK.ordinal()]);
+        this.occupancy = this.whiteOccupancy | this.blackOccupancy;
+        this.whitePieces = calculateActivePieces(this.gameBoard, this.whiteOccupancy);
+        this.blackPieces = calculateActivePieces(this.gameBoard, this.blackOccupancy);
         this.enPassantPawn = builder.enPassantPawn;
-
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(blackPieces);
-
-        // Creates the white and black players
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, blackStandardLegalMoves, whiteStandardLegalMoves);
-        this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
-
+        this.nextMoveMaker = builder.nextMoveMaker;
         this.transitionMove = builder.transitionMove != null ? builder.transitionMove : Move.MoveFactory.getNullMove();
+        this.castlingRights = CastlingRights.calculate(this);
+        // Boards made by a move get their key from the move, which only updates what it changed
+        this.zobristKey = builder.hasZobristKey ? builder.zobristKey :
+                Zobrist.calculateKey(this, this.nextMoveMaker, this.castlingRights,
+                                     this.enPassantPawn != null ? this.enPassantPawn.getPiecePosition() : -1);
+        this.halfmoveClock = builder.halfmoveClock;
+        this.positionHistory = builder.positionHistory;
     }
 
     @Override
@@ -54,15 +81,15 @@ public class Board {
     }
 
     public Player getWhitePlayer() {
-        return this.whitePlayer;
+        return whitePlayer();
     }
 
     public Player getBlackPlayer() {
-        return this.blackPlayer;
+        return blackPlayer();
     }
 
     public Player getCurrentPlayer() {
-        return this.currentPlayer;
+        return this.nextMoveMaker.isWhite() ? whitePlayer() : blackPlayer();
     }
 
     public Collection<Piece> getBlackPieces() {
@@ -77,6 +104,76 @@ public class Board {
         return this.transitionMove;
     }
 
+    // Returns the castling rights of both players, see CastlingRights
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    // Returns the 64-bit Zobrist key of the position: its pieces, the player to move, the castling rights and the en
+    // passant file
+    public long zobristKey() {
+        return this.zobristKey;
+    }
+
+    // Returns the number of moves made since the last capture or pawn move
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    // Returns the keys of the positions since the last capture or pawn move, oldest first, without the current one
+    public long[] getPositionHistory() {
+        return this.positionHistory.clone();
+    }
+
+    // Returns the position history of the board a move that is neither a capture nor a pawn move leads to: this
+    // board's history, followed by this position
+    long[] extendPositionHistory() {
+        final long[] history = Arrays.copyOf(this.positionHistory, this.positionHistory.length + 1);
+        history[this.positionHistory.length] = this.zobristKey;
+        return history;
+    }
+
+    // Returns how many times the current position occurred before in the game. Positions with the other player to
+    // move cannot be the same, so only every other position is compared.
+    public int getRepetitionCount() {
+        int repetitions = 0;
+        for (int i = this.positionHistory.length - 2; i >= 0; i -= 2) {
+            if (this.positionHistory[i] == this.zobristKey) {
+                repetitions++;
+            }
+        }
+        return repetitions;
+    }
+
+    // Returns whether the position has occurred before in the game
+    public boolean isRepetition() {
+        return getRepetitionCount() > 0;
+    }
+
+    // Returns whether the position is on the board for the third time, which draws the game
+    public boolean isThreefoldRepetition() {
+        return getRepetitionCount() >= 2;
+    }
+
+    // Returns whether fifty moves by each player have passed without a capture or pawn move, which draws the game
+    public boolean isFiftyMoveDraw() {
+        return this.halfmoveClock >= FIFTY_MOVE_RULE_PLIES;
+    }
+
+    // Returns the moves of the given alliance's pieces, castles aside, generating them on the first call
+    public Collection<Move> getStandardLegalMoves(final Alliance alliance) {
+        if (alliance.isWhite()) {
+            if (this.whiteStandardLegalMoves == null) {
+                this.whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
+            }
+            return this.whiteStandardLegalMoves;
+        }
+        if (this.blackStandardLegalMoves == null) {
+            this.blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
+        }
+        return this.blackStandardLegalMoves;
+    }
+
     // Generates and returns a list of legal moves for a given collection of pieces
     private Collection<Move> calculateLegalMoves(Collection<Piece> pieces) {
         final List<Move> legalMoves = new ArrayList<>();
@@ -86,27 +183,63 @@ public class Board {
         return Collections.unmodifiableCollection(legalMoves);
     }
 
-    // Generates and returns a list representing all the pieces of a given alliance on the board
-    private static Collection<Piece> calculateActivePieces(List<Tile> gameBoard, Alliance alliance) {
-        final List<Piece> activePieces = new ArrayList<>();
-        // for each tile in the game board, if the tile is occupied and the piece is of the correct alliance, then
-        // add that piece to the activePieces list
-        for (final Tile tile : gameBoard) {
-            if (tile.isTileOccupied()) {
-                final Piece piece = tile.getPiece();
-                if (piece.getPieceAlliance() == alliance) {
-                    activePieces.add(piece);
-                }
-            }
+    // Generates and returns a list representing all the pieces on the tiles of the given occupancy mask
+    private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final long occupancy) {
+        final List<Piece> activePieces = new ArrayList<>(BitBoards.count(occupancy));
+        // Only visits the occupied tiles, in tile order
+        for (long tiles = occupancy; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            activePieces.add(gameBoard.get(BitBoards.firstTile(tiles)).getPiece());
         }
         return Collections.unmodifiableCollection(activePieces);
     }
 
+    // Generates the bit boards for every alliance and piece type from the builder's configuration
+    private static long[][] createPieceBitBoards(final Builder builder) {
+        final long[][] bitBoards = new long[Alliance.values().length][Piece.PieceType.values().length];
+        for (final Piece piece : builder.boardConfig.values()) {
+            bitBoards[piece.getPieceAlliance().ordinal()][piece.getPieceType().ordinal()] |=
+                    BitBoards.tileMask(piece.getPiecePosition());
+        }
+        return bitBoards;
+    }
+
+    // Returns the union of the given piece bit boards
+    private static long calculateOccupancy(final long[] bitBoards) {
+        long occupancy = BitBoards.EMPTY;
+        for (final long bitBoard : bitBoards) {
+            occupancy |= bitBoard;
+        }
+        return occupancy;
+    }
+
     // returns the Tile at a given coordinate
     public Tile getTile(final int tileCoordinate) {
         return gameBoard.get(tileCoordinate);
     }
 
+    // Returns a boolean representing whether or not a piece stands on the given coordinate
+    public boolean isTileOccupied(final int tileCoordinate) {
+        return BitBoards.isSet(this.occupancy, tileCoordinate);
+    }
+
+    // Returns the bit board of the pieces of the given alliance and type
+    @Override
+    public long getPieceBitBoard(final Alliance alliance, final Piece.PieceType pieceType) {
+        return this.pieceBitBoards[alliance.ordinal()][pieceType.ordinal()];
+    }
+
+    // Returns the bit board of every tile occupied by a piece of the given alliance
+    @Override
+    public long getOccupancy(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    // Returns the bit board of every occupied tile
+    @Override
+    public long getOccupancy() {
+        return this.occupancy;
+    }
+
     // Generates and returns a List of tiles representing the current game board
     private static List<Tile> createGameBoard(final Builder builder) {
         final List tiles = new ArrayList(BoardUtils.NUM_TILES); // creates a list of 64 tiles
@@ -117,6 +250,22 @@ public class Board {
         return Collections.unmodifiableList(tiles);
     }
 
+    // Returns the board in which the current player passes their turn: the same pieces, with the opponent to move
+    // and no en passant capture. Passing is not a legal move, but the search uses it to see how strong a position is.
+    public Board makeNullMove() {
+        final Builder builder = new Builder();
+        for (final Piece piece : getWhitePieces()) {
+            builder.setPiece(piece);
+        }
+        for (final Piece piece : getBlackPieces()) {
+            builder.setPiece(piece);
+        }
+        builder.setMoveMaker(this.nextMoveMaker.isWhite() ? Alliance.BLACK : Alliance.WHITE);
+        final int enPassantTile = this.enPassantPawn != null ? this.enPassantPawn.getPiecePosition() : -1;
+        builder.setZobristKey(this.zobristKey ^ Zobrist.sideKey() ^ Zobrist.enPassantKey(enPassantTile));
+        return builder.build();
+    }
+
     // Creates the initial board for a chess game
     public static Board createStandardBoard() {
         final Builder builder = new Builder();
@@ -165,16 +314,22 @@ public class Board {
     // Returns a list of all legal moves on the given board
     public List<Move> getAllLegalMoves() {
         List<Move> combined = new ArrayList<>();
-        combined.addAll(this.whitePlayer.getLegalMoves());
-        combined.addAll(this.blackPlayer.getLegalMoves());
+        combined.addAll(whitePlayer().getLegalMoves());
+        combined.addAll(blackPlayer().getLegalMoves());
         return combined;
     }
 
     public Player blackPlayer() {
+        if (this.blackPlayer == null) {
+            this.blackPlayer = new BlackPlayer(this);
+        }
         return this.blackPlayer;
     }
 
     public Player whitePlayer() {
+        if (this.whitePlayer == null) {
+            this.whitePlayer = new WhitePlayer(this);
+        }
         return this.whitePlayer;
     }
 
@@ -188,6 +343,10 @@ public class Board {
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
         Move transitionMove;
+        long zobristKey;
+        boolean hasZobristKey;
+        int halfmoveClock;
+        long[] positionHistory = NO_POSITIONS;
 
         public Builder() {
             this.boardConfig = new HashMap<>();
@@ -217,6 +376,21 @@ public class Board {
         public void setEnPassantPawn(Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
         }
+
+        // Sets the Zobrist key of the board being built. Without one the board hashes itself from scratch.
+        public Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            this.hasZobristKey = true;
+            return this;
+        }
+
+        // Sets the moves made since the last capture or pawn move, and the keys of the positions they went through,
+        // oldest first. A board built without them starts with none.
+        public Builder setHistory(final int halfmoveClock, final long[] positionHistory) {
+            this.halfmoveClock = halfmoveClock;
+            this.positionHistory = positionHistory;
+            return this;
+        }
     }
 
 
@@ -0,0 +1,65 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+// Castling rights are packed into an int with one bit per king and side. A side keeps its right while its king and
+// that side's rook have not moved, which on a Board is read from the pieces' first-move flags.
+public final class CastlingRights {
+
+    public static final int NONE = 0;
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL = WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+
+    // The rights kept after a move from or to each tile: moving a king or rook, or capturing a rook, loses them
+    private static final int[] RIGHTS_KEPT = initRightsKept();
+
+    // Throws a runtime error whenever someone tries to instantiate because we just want it to be a utility class.
+    private CastlingRights() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    // Derives the castling rights from the first-move flags of the kings and of the rooks on their starting tiles
+    public static int calculate(final Board board) {
+        int rights = NONE;
+        if (isUnmovedPiece(board, 60, Alliance.WHITE, PieceType.KING)) {
+            rights |= isUnmovedPiece(board, 63, Alliance.WHITE, PieceType.ROOK) ? WHITE_KING_SIDE : NONE;
+            rights |= isUnmovedPiece(board, 56, Alliance.WHITE, PieceType.ROOK) ? WHITE_QUEEN_SIDE : NONE;
+        }
+        if (isUnmovedPiece(board, 4, Alliance.BLACK, PieceType.KING)) {
+            rights |= isUnmovedPiece(board, 7, Alliance.BLACK, PieceType.ROOK) ? BLACK_KING_SIDE : NONE;
+            rights |= isUnmovedPiece(board, 0, Alliance.BLACK, PieceType.ROOK) ? BLACK_QUEEN_SIDE : NONE;
+        }
+        return rights;
+    }
+
+    // Returns the rights left after a move between the two tiles
+    public static int afterMove(final int rights, final int currentCoordinate, final int destinationCoordinate) {
+        return rights & RIGHTS_KEPT[currentCoordinate] & RIGHTS_KEPT[destinationCoordinate];
+    }
+
+    private static boolean isUnmovedPiece(final Board board, final int tileCoordinate, final Alliance alliance,
+                                          final PieceType pieceType) {
+        final Piece piece = board.getTile(tileCoordinate).getPiece();
+        return piece != null && piece.getPieceAlliance() == alliance && piece.getPieceType() == pieceType &&
+               piece.isFirstMove();
+    }
+
+    private static int[] initRightsKept() {
+        final int[] rightsKept = new int[BoardUtils.NUM_TILES];
+        Arrays.fill(rightsKept, ALL);
+        rightsKept[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        rightsKept[63] &= ~WHITE_KING_SIDE;
+        rightsKept[56] &= ~WHITE_QUEEN_SIDE;
+        rightsKept[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        rightsKept[7] &= ~BLACK_KING_SIDE;
+        rightsKept[0] &= ~BLACK_QUEEN_SIDE;
+        return rightsKept;
+    }
+}
@@ -0,0 +1,106 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// LegalityMasks holds what decides whether a move of one alliance is legal in a position: the pieces giving check to
+// its king and its pinned pieces. They are worked out once per position, after which a generated move is tested with
+// a few mask operations instead of being made on a new board to see whether it leaves the king in check. A
+// SearchBoard keeps one per ply and recalculates it in place for each new position.
+public final class LegalityMasks {
+
+    private BitBoardPosition position;
+    private Alliance opponent;
+    private int kingTile;
+    private long checkers;
+    private long pinned;
+    // The tiles a piece other than the king may move to: any tile when not in check, the checker and the tiles
+    // between it and the king when in check by one piece, and no tile at all in double check
+    private long checkMask;
+
+    public LegalityMasks(final BitBoardPosition position, final Alliance alliance) {
+        calculate(position, alliance);
+    }
+
+    LegalityMasks() {
+    }
+
+    // Works out the masks for the alliance in the position, replacing any previous ones
+    void calculate(final BitBoardPosition position, final Alliance alliance) {
+        this.position = position;
+        this.opponent = alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        this.kingTile = BitBoards.firstTile(position.getPieceBitBoard(alliance, PieceType.KING));
+        this.checkers = AttackTables.attackersTo(position, this.kingTile, this.opponent, position.getOccupancy());
+        this.pinned = calculatePinnedPieces(position, alliance, this.opponent, this.kingTile);
+        if (this.checkers == BitBoards.EMPTY) {
+            this.checkMask = BitBoards.ALL_TILES;
+        } else if (BitBoards.count(this.checkers) == 1) {
+            this.checkMask = this.checkers |
+                             AttackTables.betweenTiles(this.kingTile, BitBoards.firstTile(this.checkers));
+        } else {
+            this.checkMask = BitBoards.EMPTY;
+        }
+    }
+
+    // A piece is pinned when it is the only piece between its king and an enemy slider on the same line
+    private static long calculatePinnedPieces(final BitBoardPosition position, final Alliance alliance,
+                                              final Alliance opponent, final int kingTile) {
+        final long enemy = position.getOccupancy(opponent);
+        final long queens = position.getPieceBitBoard(opponent, PieceType.QUEEN);
+        // Sliders that would attack the king if none of the alliance's own pieces were on the board
+        final long snipers = (AttackTables.rookAttacks(kingTile, enemy) &
+                              (position.getPieceBitBoard(opponent, PieceType.ROOK) | queens)) |
+                             (AttackTables.bishopAttacks(kingTile, enemy) &
+                              (position.getPieceBitBoard(opponent, PieceType.BISHOP) | queens));
+        long pinned = BitBoards.EMPTY;
+        for (long tiles = snipers; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            final long blockers = AttackTables.betweenTiles(kingTile, BitBoards.firstTile(tiles)) &
+                                  position.getOccupancy();
+            if (BitBoards.count(blockers) == 1) {
+                pinned |= blockers & position.getOccupancy(alliance);
+            }
+        }
+        return pinned;
+    }
+
+    // Returns a boolean representing whether or not the alliance's king is in check
+    public boolean isInCheck() {
+        return this.checkers != BitBoards.EMPTY;
+    }
+
+    // Returns a boolean representing whether or not the alliance's king is attacked by more than one piece
+    public boolean isInDoubleCheck() {
+        return BitBoards.count(this.checkers) > 1;
+    }
+
+    // Returns a boolean representing whether or not an enemy piece attacks the given tile
+    public boolean isTileAttacked(final int tileCoordinate) {
+        return AttackTables.attackersTo(this.position, tileCoordinate, this.opponent,
+                                        this.position.getOccupancy()) != BitBoards.EMPTY;
+    }
+
+    // Returns a boolean representing whether or not a move of a piece other than the king is legal, en passant aside.
+    // It has to stop any check, and a pinned piece may only move along the line through its king.
+    public boolean isLegalMove(final int currentCoordinate, final int destinationCoordinate) {
+        return BitBoards.isSet(this.checkMask, destinationCoordinate) &&
+               (!BitBoards.isSet(this.pinned, currentCoordinate) ||
+                BitBoards.isSet(AttackTables.lineThrough(this.kingTile, currentCoordinate), destinationCoordinate));
+    }
+
+    // Returns a boolean representing whether or not the king may step to the given tile. The king is lifted off the
+    // board first, so a slider checking it also attacks the tiles behind the king on its line.
+    public boolean isLegalKingMove(final int destinationCoordinate) {
+        return AttackTables.attackersTo(this.position, destinationCoordinate, this.opponent,
+                                        this.position.getOccupancy() & ~BitBoards.tileMask(this.kingTile)) ==
+               BitBoards.EMPTY;
+    }
+
+    // Returns a boolean representing whether or not an en passant capture is legal. Two pawns leave the row at once,
+    // which can uncover a slider, so the king is tested on the board as it is after the capture.
+    public boolean isLegalEnPassant(final int currentCoordinate, final int destinationCoordinate,
+                                    final int capturedCoordinate) {
+        final long occupancy = (this.position.getOccupancy() & ~BitBoards.tileMask(currentCoordinate) &
+                                ~BitBoards.tileMask(capturedCoordinate)) | BitBoards.tileMask(destinationCoordinate);
+        return AttackTables.attackersTo(this.position, this.kingTile, this.opponent, occupancy) == BitBoards.EMPTY;
+    }
+}
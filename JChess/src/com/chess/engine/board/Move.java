@@ -9,7 +9,6 @@ public abstract class Move {
     protected final Piece movedPiece;
     protected final int destinationCoordinate;
     protected final boolean isFirstMove;
-    protected final boolean isCheck;
 
     public static final Move NULL_MOVE = new NullMove();
 
@@ -18,11 +17,6 @@ public abstract class Move {
         this.movedPiece = movedPiece;
         this.destinationCoordinate = destinationCoordinate;
         this.isFirstMove = movedPiece.isFirstMove();
-        if (board.getCurrentPlayer() != null) {
-            this.isCheck = board.getCurrentPlayer().getOpponent().isInCheck();
-        } else {
-            this.isCheck = false;
-        }
     }
 
     private Move(final Board board, final int destinationCoordinate) {
@@ -30,7 +24,6 @@ public abstract class Move {
         this.destinationCoordinate = destinationCoordinate;
         this.movedPiece = null;
         this.isFirstMove = false;
-        this.isCheck = false;
     }
 
     @Override
@@ -110,16 +103,51 @@ public abstract class Move {
             builder.setPiece(piece);
         }
         // places the moved piece at its new destination coordinate
-        builder.setPiece(this.movedPiece.movePiece(this));
+        final Piece movedPieceAfter = this.movedPiece.movePiece(this);
+        builder.setPiece(movedPieceAfter);
         // Represents the switching to a new player's turn
         builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
         // Update moveTransition
         builder.setMoveTransition(this);
+        setHistory(builder);
+        builder.setZobristKey(calculateTransitionKey(movedPieceAfter, null));
         return builder.build();
     }
 
+    // Works out the Zobrist key of the board this move leads to from this board's key. Only what the move changes is
+    // XORed out and in: the moved piece, any captured piece, the player to move, the castling rights and the en
+    // passant file.
+    protected long calculateTransitionKey(final Piece movedPieceAfter, final Pawn enPassantPawnAfter) {
+        final int castlingRights = this.board.getCastlingRights();
+        final int castlingRightsAfter = CastlingRights.afterMove(castlingRights, getCurrentCoordinate(),
+                                                                 this.destinationCoordinate);
+        long key = this.board.zobristKey() ^ Zobrist.sideKey() ^
+                   Zobrist.pieceKey(this.movedPiece) ^ Zobrist.pieceKey(movedPieceAfter) ^
+                   Zobrist.castlingKey(castlingRights) ^ Zobrist.castlingKey(castlingRightsAfter) ^
+                   enPassantKey(this.board.getEnPassantPawn()) ^ enPassantKey(enPassantPawnAfter);
+        if (getAttackedPiece() != null) {
+            key ^= Zobrist.pieceKey(getAttackedPiece());
+        }
+        return key;
+    }
+
+    // Carries the game's history over to the board this move leads to. Captures and pawn moves can never be undone,
+    // so they restart the halfmove clock, and no position before them can ever come back.
+    protected void setHistory(final Builder builder) {
+        if (isAttack() || this.movedPiece.getPieceType() == Piece.PieceType.PAWN) {
+            builder.setHistory(0, Board.NO_POSITIONS);
+        } else {
+            builder.setHistory(this.board.getHalfmoveClock() + 1, this.board.extendPositionHistory());
+        }
+    }
+
+    private static long enPassantKey(final Pawn enPassantPawn) {
+        return enPassantPawn == null ? 0L : Zobrist.enPassantKey(enPassantPawn.getPiecePosition());
+    }
+
+    // Worked out only when the move is printed, so creating a move never has to ask the board for its players
     public String checkHashMark() {
-        if(this.isCheck) {
+        if(this.board.getCurrentPlayer().getOpponent().isInCheck()) {
             return "+";
         }
         return "";
@@ -244,8 +272,11 @@ public abstract class Move {
                     builder.setPiece(piece);
                 }
             }
-            builder.setPiece(this.movedPiece.movePiece(this));
+            final Piece movedPieceAfter = this.movedPiece.movePiece(this);
+            builder.setPiece(movedPieceAfter);
             builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            setHistory(builder);
+            builder.setZobristKey(calculateTransitionKey(movedPieceAfter, null));
             return builder.build();
         }
     }
@@ -272,8 +303,14 @@ public abstract class Move {
             for(final Piece piece : pawnMovedBoard.getCurrentPlayer().getOpponent().getActivePieces()) {
                 builder.setPiece(piece);
             }
-            builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
+            final Piece promotionPiece = this.promotedPawn.getPromotionPiece().movePiece(this);
+            builder.setPiece(promotionPiece);
             builder.setMoveMaker(decoratedMove.getBoard().getCurrentPlayer().getOpponent().getAlliance());
+            // The pawn the decorated move left on the destination becomes the promotion piece
+            setHistory(builder);
+            builder.setZobristKey(pawnMovedBoard.zobristKey() ^
+                                  Zobrist.pieceKey(pawnMovedBoard.getTile(this.destinationCoordinate).getPiece()) ^
+                                  Zobrist.pieceKey(promotionPiece));
 
             return builder.build();
         }
@@ -324,6 +361,8 @@ public abstract class Move {
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            setHistory(builder);
+            builder.setZobristKey(calculateTransitionKey(movedPawn, movedPawn));
             return builder.build();
         }
 
@@ -367,9 +406,15 @@ public abstract class Move {
                 builder.setPiece(piece);
             }
 
-            builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance()));
+            final Piece movedPieceAfter = this.movedPiece.movePiece(this);
+            final Rook castleRookAfter = PieceCache.getRook(this.castleRookDestination,
+                                                            this.castleRook.getPieceAlliance(), true);
+            builder.setPiece(movedPieceAfter);
+            builder.setPiece(castleRookAfter);
             builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            setHistory(builder);
+            builder.setZobristKey(calculateTransitionKey(movedPieceAfter, null) ^
+                                  Zobrist.pieceKey(this.castleRook) ^ Zobrist.pieceKey(castleRookAfter));
 
             return builder.build();
         }
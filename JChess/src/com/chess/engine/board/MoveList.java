@@ -0,0 +1,57 @@
+package com.chess.engine.board;
+
+// MoveList is a reusable list of packed moves backed by a fixed int array. The search keeps one per ply and clears it
+// for every node, so generating moves never allocates.
+public final class MoveList {
+
+    // No position has more legal moves than this
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private int size;
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public void add(final int move) {
+        this.moves[this.size++] = move;
+    }
+
+    public int get(final int index) {
+        return this.moves[index];
+    }
+
+    public void set(final int index, final int move) {
+        this.moves[index] = move;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // Shortens the list to its first size moves
+    public void truncate(final int size) {
+        this.size = size;
+    }
+
+    public boolean contains(final int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns a copy of the moves in the list
+    public int[] toArray() {
+        final int[] copy = new int[this.size];
+        System.arraycopy(this.moves, 0, copy, 0, this.size);
+        return copy;
+    }
+}
@@ -0,0 +1,110 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.KingSideCastleMove;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
+import com.chess.engine.board.Move.PawnJump;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.board.Move.QueenSideCastleMove;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// A packed move is a move stored in a single int, which is what the search works with. Bits 0-5 hold the current
+// coordinate, bits 6-11 the destination coordinate, bits 12-15 a flag saying what kind of move it is and bits 16-18
+// the type of piece a pawn promotes to. The Move classes are only used at the GUI's end, where toMove and fromMove
+// convert between the two.
+public final class PackedMove {
+
+    public static final int NO_MOVE = 0;
+
+    // Flags. Captures and promotions each have a bit of their own, so they can be tested with a mask.
+    public static final int QUIET = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int KING_SIDE_CASTLE = 2;
+    public static final int QUEEN_SIDE_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    // Throws a runtime error whenever someone tries to instantiate because we just want it to be a utility class.
+    private PackedMove() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    // Packs a move that is not a promotion
+    public static int createMove(final int currentCoordinate, final int destinationCoordinate, final int flag) {
+        return currentCoordinate | (destinationCoordinate << 6) | (flag << 12);
+    }
+
+    // Packs a promotion, which has a PROMOTION or PROMOTION_CAPTURE flag, to the given piece type
+    public static int createPromotion(final int currentCoordinate, final int destinationCoordinate, final int flag,
+                                      final PieceType promotionPieceType) {
+        return createMove(currentCoordinate, destinationCoordinate, flag) | (promotionPieceType.ordinal() << 16);
+    }
+
+    public static int getCurrentCoordinate(final int move) {
+        return move & 0x3F;
+    }
+
+    public static int getDestinationCoordinate(final int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int getFlag(final int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    // Returns the piece type a promotion promotes to, or null if the move is not a promotion
+    public static PieceType getPromotionPieceType(final int move) {
+        return isPromotion(move) ? PIECE_TYPES[(move >>> 16) & 0x7] : null;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (getFlag(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (getFlag(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(final int move) {
+        return getFlag(move) == KING_SIDE_CASTLE || getFlag(move) == QUEEN_SIDE_CASTLE;
+    }
+
+    // Returns the board's Move for a packed move, or the null move if the board has no such legal move
+    public static Move toMove(final Board board, final int move) {
+        return Move.MoveFactory.createMove(board, getCurrentCoordinate(move), getDestinationCoordinate(move));
+    }
+
+    // Packs one of the board's moves. Pawns only ever promote to queens on a Board.
+    public static int fromMove(final Move move) {
+        final int currentCoordinate = move.getCurrentCoordinate();
+        final int destinationCoordinate = move.getDestinationCoordinate();
+        if (move instanceof PawnPromotion) {
+            return createPromotion(currentCoordinate, destinationCoordinate,
+                                   move.isAttack() ? PROMOTION_CAPTURE : PROMOTION, PieceType.QUEEN);
+        }
+        final int flag;
+        if (move instanceof KingSideCastleMove) {
+            flag = KING_SIDE_CASTLE;
+        } else if (move instanceof QueenSideCastleMove) {
+            flag = QUEEN_SIDE_CASTLE;
+        } else if (move instanceof PawnJump) {
+            flag = PAWN_JUMP;
+        } else if (move instanceof PawnEnPassantAttackMove) {
+            flag = EN_PASSANT;
+        } else if (move.isAttack()) {
+            flag = CAPTURE;
+        } else {
+            flag = QUIET;
+        }
+        return createMove(currentCoordinate, destinationCoordinate, flag);
+    }
+
+    // Returns the move in coordinate notation, such as e2e4
+    public static String toString(final int move) {
+        return BoardUtils.getPositionAtCoordinate(getCurrentCoordinate(move)) +
+               BoardUtils.getPositionAtCoordinate(getDestinationCoordinate(move));
+    }
+}
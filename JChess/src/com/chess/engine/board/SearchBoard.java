@@ -0,0 +1,554 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+import static com.chess.engine.board.CastlingRights.*;
+import static com.chess.engine.board.PackedMove.*;
+
+// SearchBoard is a mutable board used by the search. Unlike Board, which is rebuilt from scratch for every move, a
+// SearchBoard applies a move in place with makeMove and restores the previous position from an undo stack with
+// unmakeMove, so searching a node never builds a board. Moves are packed into ints (see PackedMove) and generated
+// into reusable MoveLists.
+public class SearchBoard implements BitBoardPosition {
+
+    public static final int WHITE = Alliance.WHITE.ordinal();
+    public static final int BLACK = Alliance.BLACK.ordinal();
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_TILE = -1;
+
+    // Maximum number of moves that can be made (and unmade) from the position the board was created with
+    public static final int MAX_PLY = 256;
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    // Indexed [colour][pieceType.ordinal()]
+    private final long[][] pieceBitBoards = new long[2][PIECE_TYPES.length];
+    private final long[] occupancy = new long[2];
+    // The piece code (see pieceCode) on every tile, or NO_PIECE
+    private final int[] pieces = new int[BoardUtils.NUM_TILES];
+    private final boolean[] castled = new boolean[2];
+
+    private int moveMaker;
+    private int castlingRights;
+    private int enPassantTile;
+    // Kept up to date by every change to the position, and equal to the key of the same position on a Board
+    private long zobristKey;
+    // Moves since the last capture or pawn move, counting those of the game before the board was created
+    private int halfmoveClock;
+    // The keys of the game's positions since its last capture or pawn move, up to the board's creation, oldest first.
+    // The positions reached since then are the keys on the undo stack.
+    private final long[] gamePositionKeys;
+
+    // Undo stack, one entry per move made
+    private final int[] undoMoves = new int[MAX_PLY];
+    private final int[] undoCapturedPieces = new int[MAX_PLY];
+    private final int[] undoCastlingRights = new int[MAX_PLY];
+    private final int[] undoEnPassantTiles = new int[MAX_PLY];
+    private final long[] undoZobristKeys = new long[MAX_PLY];
+    private final int[] undoHalfmoveClocks = new int[MAX_PLY];
+    private int ply;
+
+    // The checkers and pinned pieces of the position at each ply, worked out the first time moves are generated there.
+    // They stay valid while moves below that ply are made and unmade, as unmakeMove restores the same position.
+    private final LegalityMasks[] legalityMasks = new LegalityMasks[MAX_PLY + 1];
+    private final boolean[] isLegalityMasksValid = new boolean[MAX_PLY + 1];
+    // Holds the moves generated by hasLegalMoves and isLegal
+    private final MoveList scratchMoves = new MoveList();
+
+    // Constructs a SearchBoard holding the same position as the given board
+    public SearchBoard(final Board board) {
+        Arrays.fill(this.pieces, NO_PIECE);
+        for (final Piece piece : board.getWhitePieces()) {
+            putPiece(piece.getPiecePosition(), pieceCode(WHITE, piece.getPieceType().ordinal()));
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            putPiece(piece.getPiecePosition(), pieceCode(BLACK, piece.getPieceType().ordinal()));
+        }
+        this.moveMaker = board.getCurrentPlayer().getAlliance().ordinal();
+        this.castlingRights = CastlingRights.calculate(board);
+        this.castled[WHITE] = board.getWhitePlayer().isCastled();
+        this.castled[BLACK] = board.getBlackPlayer().isCastled();
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        this.enPassantTile = enPassantPawn == null ? NO_TILE :
+                enPassantPawn.getPiecePosition() - (enPassantPawn.getPieceAlliance().getDirection() * 8);
+        this.zobristKey = board.zobristKey();
+        this.halfmoveClock = board.getHalfmoveClock();
+        this.gamePositionKeys = board.getPositionHistory();
+        this.ply = 0;
+    }
+
+    // A piece code packs a colour and a piece type ordinal into one int
+    private static int pieceCode(final int colour, final int pieceType) {
+        return colour * PIECE_TYPES.length + pieceType;
+    }
+
+    private static int colourOf(final int pieceCode) {
+        return pieceCode / PIECE_TYPES.length;
+    }
+
+    private static int typeOf(final int pieceCode) {
+        return pieceCode % PIECE_TYPES.length;
+    }
+
+////// ACCESSORS ///////////////////////////////////////////////////////////////////////////////////////////////////////
+    public Alliance getMoveMaker() {
+        return ALLIANCES[this.moveMaker];
+    }
+
+    public boolean isWhiteToMove() {
+        return this.moveMaker == WHITE;
+    }
+
+    // Returns the number of moves made since the board was created
+    public int getPly() {
+        return this.ply;
+    }
+
+    // Returns the move that led to the current position, or NO_MOVE if no move has been made
+    public int getLastMove() {
+        return this.ply == 0 ? NO_MOVE : this.undoMoves[this.ply - 1];
+    }
+
+    public long zobristKey() {
+        return this.zobristKey;
+    }
+
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    // Returns whether the current position occurred before, in the game or since the board was created. Only the
+    // positions since the last capture or pawn move can be the same, and only every other one of them has the same
+    // player to move, so the check looks at no more than half of halfmoveClock keys, and is over at once right after
+    // a capture or pawn move.
+    public boolean isRepetition() {
+        final int distance = Math.min(this.halfmoveClock, this.ply + this.gamePositionKeys.length);
+        // It takes at least two moves by each player to get back to a position
+        for (int i = 4; i <= distance; i += 2) {
+            final long key = i <= this.ply ? this.undoZobristKeys[this.ply - i] :
+                             this.gamePositionKeys[this.gamePositionKeys.length - (i - this.ply)];
+            if (key == this.zobristKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns whether fifty moves by each player have passed without a capture or pawn move
+    public boolean isFiftyMoveDraw() {
+        return this.halfmoveClock >= Board.FIFTY_MOVE_RULE_PLIES;
+    }
+
+    @Override
+    public long getPieceBitBoard(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceBitBoards[alliance.ordinal()][pieceType.ordinal()];
+    }
+
+    @Override
+    public long getOccupancy(final Alliance alliance) {
+        return this.occupancy[alliance.ordinal()];
+    }
+
+    @Override
+    public long getOccupancy() {
+        return this.occupancy[WHITE] | this.occupancy[BLACK];
+    }
+
+    // Returns the type of the piece on the given tile, or null if it is empty
+    public PieceType getPieceType(final int tileCoordinate) {
+        return this.pieces[tileCoordinate] == NO_PIECE ? null : PIECE_TYPES[typeOf(this.pieces[tileCoordinate])];
+    }
+
+    public boolean isCastled(final Alliance alliance) {
+        return this.castled[alliance.ordinal()];
+    }
+
+    // Returns a boolean representing whether or not the player to move is in check
+    public boolean isInCheck() {
+        return isTileAttacked(kingTile(this.moveMaker), 1 - this.moveMaker);
+    }
+
+    // Returns a boolean representing whether or not the player to move has a legal move
+    public boolean hasLegalMoves() {
+        generateMoves(this.scratchMoves);
+        return !this.scratchMoves.isEmpty();
+    }
+
+    private int kingTile(final int colour) {
+        return BitBoards.firstTile(this.pieceBitBoards[colour][PieceType.KING.ordinal()]);
+    }
+
+    // Returns a boolean representing whether or not a piece of the given colour attacks the tile
+    public boolean isTileAttacked(final int tileCoordinate, final int byColour) {
+        final long[] attackers = this.pieceBitBoards[byColour];
+        final long allOccupancy = getOccupancy();
+        final long queens = attackers[PieceType.QUEEN.ordinal()];
+        return (AttackTables.pawnAttacks(ALLIANCES[1 - byColour], tileCoordinate) &
+                attackers[PieceType.PAWN.ordinal()]) != BitBoards.EMPTY ||
+               (AttackTables.knightAttacks(tileCoordinate) &
+                attackers[PieceType.KNIGHT.ordinal()]) != BitBoards.EMPTY ||
+               (AttackTables.kingAttacks(tileCoordinate) & attackers[PieceType.KING.ordinal()]) != BitBoards.EMPTY ||
+               (AttackTables.bishopAttacks(tileCoordinate, allOccupancy) &
+                (attackers[PieceType.BISHOP.ordinal()] | queens)) != BitBoards.EMPTY ||
+               (AttackTables.rookAttacks(tileCoordinate, allOccupancy) &
+                (attackers[PieceType.ROOK.ordinal()] | queens)) != BitBoards.EMPTY;
+    }
+
+////// MOVE GENERATION /////////////////////////////////////////////////////////////////////////////////////////////////
+    // Generates every legal move of the player to move into the list, replacing its contents. The checkers and pinned
+    // pieces are worked out once, and the pseudo-legal moves of the pieces are kept only if they pass the masks, so no
+    // move has to be made to test it.
+    public void generateMoves(final MoveList moves) {
+        generateMoves(moves, BitBoards.ALL_TILES, true, true);
+    }
+
+    // Returns every legal move of the player to move in a new array. The search uses the MoveList methods instead.
+    public int[] generateMoves() {
+        final MoveList moves = new MoveList();
+        generateMoves(moves);
+        return moves.toArray();
+    }
+
+    // Generates the legal captures of the player to move into the list, replacing its contents. Promotions count as
+    // captures here, as they win material just the same.
+    public void generateCaptures(final MoveList moves) {
+        generateMoves(moves, BitBoards.ALL_TILES, true, false);
+    }
+
+    // Generates the legal moves that generateCaptures leaves out into the list, replacing its contents
+    public void generateQuiets(final MoveList moves) {
+        generateMoves(moves, BitBoards.ALL_TILES, false, true);
+    }
+
+    // Returns a boolean representing whether or not the move is legal in the current position. Only the moves of the
+    // piece on the move's current coordinate are generated to find out.
+    public boolean isLegal(final int move) {
+        final int from = getCurrentCoordinate(move);
+        if (move == NO_MOVE || this.pieces[from] == NO_PIECE || colourOf(this.pieces[from]) != this.moveMaker) {
+            return false;
+        }
+        generateMoves(this.scratchMoves, BitBoards.tileMask(from), true, true);
+        return this.scratchMoves.contains(move);
+    }
+
+    // Returns the checkers and pinned pieces of the current position, working them out on the first call at this ply
+    private LegalityMasks getLegalityMasks() {
+        if (this.legalityMasks[this.ply] == null) {
+            this.legalityMasks[this.ply] = new LegalityMasks();
+        }
+        if (!this.isLegalityMasksValid[this.ply]) {
+            this.legalityMasks[this.ply].calculate(this, ALLIANCES[this.moveMaker]);
+            this.isLegalityMasksValid[this.ply] = true;
+        }
+        return this.legalityMasks[this.ply];
+    }
+
+    // Generates the legal moves of the pieces on fromTiles into the list, replacing its contents. Captures and
+    // promotions are generated when tactical is set, every other move when quiet is set.
+    private void generateMoves(final MoveList moves, final long fromTiles, final boolean tactical,
+                               final boolean quiet) {
+        moves.clear();
+        final int us = this.moveMaker;
+        final int them = 1 - us;
+        final long own = this.occupancy[us];
+        final long enemy = this.occupancy[them];
+        final long allOccupancy = own | enemy;
+        final long targets = (tactical ? enemy : BitBoards.EMPTY) | (quiet ? ~allOccupancy : BitBoards.EMPTY);
+        final long[] ourPieces = this.pieceBitBoards[us];
+        final LegalityMasks masks = getLegalityMasks();
+
+        // In double check only the king can move
+        if (!masks.isInDoubleCheck()) {
+            generatePawnMoves(moves, us, ourPieces[PieceType.PAWN.ordinal()] & fromTiles, enemy, allOccupancy,
+                              tactical, quiet);
+            for (long tiles = ourPieces[PieceType.KNIGHT.ordinal()] & fromTiles; tiles != BitBoards.EMPTY;
+                 tiles = BitBoards.withoutFirstTile(tiles)) {
+                final int from = BitBoards.firstTile(tiles);
+                addMoves(moves, from, AttackTables.knightAttacks(from) & targets, enemy);
+            }
+            for (long tiles = ourPieces[PieceType.BISHOP.ordinal()] & fromTiles; tiles != BitBoards.EMPTY;
+                 tiles = BitBoards.withoutFirstTile(tiles)) {
+                final int from = BitBoards.firstTile(tiles);
+                addMoves(moves, from, AttackTables.bishopAttacks(from, allOccupancy) & targets, enemy);
+            }
+            for (long tiles = ourPieces[PieceType.ROOK.ordinal()] & fromTiles; tiles != BitBoards.EMPTY;
+                 tiles = BitBoards.withoutFirstTile(tiles)) {
+                final int from = BitBoards.firstTile(tiles);
+                addMoves(moves, from, AttackTables.rookAttacks(from, allOccupancy) & targets, enemy);
+            }
+            for (long tiles = ourPieces[PieceType.QUEEN.ordinal()] & fromTiles; tiles != BitBoards.EMPTY;
+                 tiles = BitBoards.withoutFirstTile(tiles)) {
+                final int from = BitBoards.firstTile(tiles);
+                addMoves(moves, from, AttackTables.queenAttacks(from, allOccupancy) & targets, enemy);
+            }
+        }
+        final int kingFrom = kingTile(us);
+        if (BitBoards.isSet(fromTiles, kingFrom)) {
+            addMoves(moves, kingFrom, AttackTables.kingAttacks(kingFrom) & targets, enemy);
+        }
+        removeIllegalMoves(moves, us, kingFrom, masks);
+        if (quiet && !masks.isInCheck() && BitBoards.isSet(fromTiles, kingFrom)) {
+            generateCastleMoves(moves, us, allOccupancy);
+        }
+    }
+
+    // Keeps only the moves that leave the king safe, in their generated order
+    private static void removeIllegalMoves(final MoveList moves, final int us, final int kingTile,
+                                           final LegalityMasks masks) {
+        int legalCount = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            final int from = getCurrentCoordinate(move);
+            final int to = getDestinationCoordinate(move);
+            final boolean isLegal;
+            if (from == kingTile) {
+                isLegal = masks.isLegalKingMove(to);
+            } else if (getFlag(move) == EN_PASSANT) {
+                isLegal = masks.isLegalEnPassant(from, to, to - (us == WHITE ? -8 : 8));
+            } else {
+                isLegal = masks.isLegalMove(from, to);
+            }
+            if (isLegal) {
+                moves.set(legalCount++, move);
+            }
+        }
+        moves.truncate(legalCount);
+    }
+
+    private void generatePawnMoves(final MoveList moves, final int us, final long pawns, final long enemy,
+                                   final long allOccupancy, final boolean tactical, final boolean quiet) {
+        final int forward = us == WHITE ? -8 : 8;
+        final long promotionRank = us == WHITE ? BitBoards.EIGHTH_RANK : BitBoards.FIRST_RANK;
+        final long jumpRank = us == WHITE ? BitBoards.FOURTH_RANK : BitBoards.FIFTH_RANK;
+
+        // Pushes are generated set-wise: every pawn is shifted one row forward onto the empty tiles
+        final long singlePushes = (us == WHITE ? pawns >>> 8 : pawns << 8) & ~allOccupancy;
+        final long doublePushes = (us == WHITE ? singlePushes >>> 8 : singlePushes << 8) & ~allOccupancy & jumpRank;
+        final long pushes = (tactical ? singlePushes & promotionRank : BitBoards.EMPTY) |
+                            (quiet ? singlePushes & ~promotionRank : BitBoards.EMPTY);
+        for (long tiles = pushes; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            final int to = BitBoards.firstTile(tiles);
+            moves.add(BitBoards.isSet(promotionRank, to) ? createPromotion(to - forward, to, PROMOTION, PieceType.QUEEN) :
+                                                           createMove(to - forward, to, QUIET));
+        }
+        if (quiet) {
+            for (long tiles = doublePushes; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+                final int to = BitBoards.firstTile(tiles);
+                moves.add(createMove(to - 2 * forward, to, PAWN_JUMP));
+            }
+        }
+        if (!tactical) {
+            return;
+        }
+        for (long tiles = pawns; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            final int from = BitBoards.firstTile(tiles);
+            for (long targets = AttackTables.pawnAttacks(ALLIANCES[us], from) & enemy;
+                 targets != BitBoards.EMPTY; targets = BitBoards.withoutFirstTile(targets)) {
+                final int to = BitBoards.firstTile(targets);
+                moves.add(BitBoards.isSet(promotionRank, to) ?
+                          createPromotion(from, to, PROMOTION_CAPTURE, PieceType.QUEEN) : createMove(from, to, CAPTURE));
+            }
+        }
+        if (this.enPassantTile != NO_TILE) {
+            // The pawns that could capture onto the en passant tile are those a pawn of the other colour on that tile
+            // would attack
+            for (long tiles = AttackTables.pawnAttacks(ALLIANCES[1 - us], this.enPassantTile) & pawns;
+                 tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+                moves.add(createMove(BitBoards.firstTile(tiles), this.enPassantTile, EN_PASSANT));
+            }
+        }
+    }
+
+    private static void addMoves(final MoveList moves, final int from, final long destinations, final long enemy) {
+        for (long tiles = destinations; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            final int to = BitBoards.firstTile(tiles);
+            moves.add(createMove(from, to, BitBoards.isSet(enemy, to) ? CAPTURE : QUIET));
+        }
+    }
+
+    // The king may not castle out of, through or into check, and the tiles between king and rook must be empty. The
+    // caller has already made sure the king is not in check.
+    private void generateCastleMoves(final MoveList moves, final int us, final long allOccupancy) {
+        final int kingSide = us == WHITE ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+        final int queenSide = us == WHITE ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+        if ((this.castlingRights & (kingSide | queenSide)) == 0) {
+            return;
+        }
+        final int king = us == WHITE ? 60 : 4;
+        final int them = 1 - us;
+        if ((this.castlingRights & kingSide) != 0 &&
+            (allOccupancy & (BitBoards.tileMask(king + 1) | BitBoards.tileMask(king + 2))) == BitBoards.EMPTY &&
+            !isTileAttacked(king + 1, them) && !isTileAttacked(king + 2, them)) {
+            moves.add(createMove(king, king + 2, KING_SIDE_CASTLE));
+        }
+        if ((this.castlingRights & queenSide) != 0 &&
+            (allOccupancy & (BitBoards.tileMask(king - 1) | BitBoards.tileMask(king - 2) |
+                             BitBoards.tileMask(king - 3))) == BitBoards.EMPTY &&
+            !isTileAttacked(king - 1, them) && !isTileAttacked(king - 2, them)) {
+            moves.add(createMove(king, king - 2, QUEEN_SIDE_CASTLE));
+        }
+    }
+
+////// MAKE / UNMAKE ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Makes a legal move in place
+    public void makeMove(final int move) {
+        final int from = getCurrentCoordinate(move);
+        final int to = getDestinationCoordinate(move);
+        final int flag = getFlag(move);
+        final int us = this.moveMaker;
+
+        this.undoMoves[this.ply] = move;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantTiles[this.ply] = this.enPassantTile;
+        this.undoZobristKeys[this.ply] = this.zobristKey;
+        this.undoHalfmoveClocks[this.ply] = this.halfmoveClock;
+        this.halfmoveClock = (flag & CAPTURE) != 0 || typeOf(this.pieces[from]) == PieceType.PAWN.ordinal() ?
+                             0 : this.halfmoveClock + 1;
+
+        int capturedPiece = NO_PIECE;
+        if (flag == EN_PASSANT) {
+            final int capturedTile = to - (us == WHITE ? -8 : 8);
+            capturedPiece = this.pieces[capturedTile];
+            removePiece(capturedTile);
+        } else if ((flag & CAPTURE) != 0) {
+            capturedPiece = this.pieces[to];
+            removePiece(to);
+        }
+        this.undoCapturedPieces[this.ply] = capturedPiece;
+
+        movePiece(from, to);
+        if ((flag & PROMOTION) != 0) {
+            removePiece(to);
+            putPiece(to, pieceCode(us, getPromotionPieceType(move).ordinal()));
+        } else if (flag == KING_SIDE_CASTLE) {
+            movePiece(from + 3, from + 1);
+            this.castled[us] = true;
+        } else if (flag == QUEEN_SIDE_CASTLE) {
+            movePiece(from - 4, from - 1);
+            this.castled[us] = true;
+        }
+
+        // The pieces' keys were updated as they moved, which leaves the castling rights, en passant file and side
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.enPassantKey(this.enPassantTile);
+        this.castlingRights = afterMove(this.castlingRights, from, to);
+        this.enPassantTile = flag == PAWN_JUMP ? (from + to) / 2 : NO_TILE;
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.enPassantKey(this.enPassantTile) ^
+                           Zobrist.sideKey();
+        this.moveMaker = 1 - us;
+        this.ply++;
+        this.isLegalityMasksValid[this.ply] = false;
+    }
+
+    // Passes the turn: the other player moves next and there is no en passant capture, but no piece moves. Passing is
+    // not a legal move, so a null move must not be made while in check. A position after a pass is not a repetition
+    // of one before it, so the halfmove clock restarts.
+    public void makeNullMove() {
+        this.undoMoves[this.ply] = NO_MOVE;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantTiles[this.ply] = this.enPassantTile;
+        this.undoZobristKeys[this.ply] = this.zobristKey;
+        this.undoHalfmoveClocks[this.ply] = this.halfmoveClock;
+        this.halfmoveClock = 0;
+
+        this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTile) ^ Zobrist.sideKey();
+        this.enPassantTile = NO_TILE;
+        this.moveMaker = 1 - this.moveMaker;
+        this.ply++;
+        this.isLegalityMasksValid[this.ply] = false;
+    }
+
+    // Takes back a null move
+    public void unmakeNullMove() {
+        this.ply--;
+        this.moveMaker = 1 - this.moveMaker;
+        this.enPassantTile = this.undoEnPassantTiles[this.ply];
+        this.zobristKey = this.undoZobristKeys[this.ply];
+        this.halfmoveClock = this.undoHalfmoveClocks[this.ply];
+    }
+
+    // Takes back the last move made
+    public void unmakeMove() {
+        this.ply--;
+        final int move = this.undoMoves[this.ply];
+        final int from = getCurrentCoordinate(move);
+        final int to = getDestinationCoordinate(move);
+        final int flag = getFlag(move);
+        final int us = 1 - this.moveMaker;
+
+        this.moveMaker = us;
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantTile = this.undoEnPassantTiles[this.ply];
+
+        if ((flag & PROMOTION) != 0) {
+            removePiece(to);
+            putPiece(to, pieceCode(us, PieceType.PAWN.ordinal()));
+        } else if (flag == KING_SIDE_CASTLE) {
+            movePiece(from + 1, from + 3);
+            this.castled[us] = false;
+        } else if (flag == QUEEN_SIDE_CASTLE) {
+            movePiece(from - 1, from - 4);
+            this.castled[us] = false;
+        }
+        movePiece(to, from);
+
+        final int capturedPiece = this.undoCapturedPieces[this.ply];
+        if (capturedPiece != NO_PIECE) {
+            putPiece(flag == EN_PASSANT ? to - (us == WHITE ? -8 : 8) : to, capturedPiece);
+        }
+        this.zobristKey = this.undoZobristKeys[this.ply];
+        this.halfmoveClock = this.undoHalfmoveClocks[this.ply];
+    }
+
+    private void putPiece(final int tileCoordinate, final int pieceCode) {
+        final long mask = BitBoards.tileMask(tileCoordinate);
+        this.pieces[tileCoordinate] = pieceCode;
+        this.pieceBitBoards[colourOf(pieceCode)][typeOf(pieceCode)] |= mask;
+        this.occupancy[colourOf(pieceCode)] |= mask;
+        this.zobristKey ^= pieceKey(pieceCode, tileCoordinate);
+    }
+
+    private void removePiece(final int tileCoordinate) {
+        final int pieceCode = this.pieces[tileCoordinate];
+        final long mask = BitBoards.tileMask(tileCoordinate);
+        this.pieces[tileCoordinate] = NO_PIECE;
+        this.pieceBitBoards[colourOf(pieceCode)][typeOf(pieceCode)] &= ~mask;
+        this.occupancy[colourOf(pieceCode)] &= ~mask;
+        this.zobristKey ^= pieceKey(pieceCode, tileCoordinate);
+    }
+
+    private static long pieceKey(final int pieceCode, final int tileCoordinate) {
+        return Zobrist.pieceKey(ALLIANCES[colourOf(pieceCode)], PIECE_TYPES[typeOf(pieceCode)], tileCoordinate);
+    }
+
+    private void movePiece(final int from, final int to) {
+        final int pieceCode = this.pieces[from];
+        removePiece(from);
+        putPiece(to, pieceCode);
+    }
+
+    @Override
+    // Returns an aski representation of the current board state, in the same format as Board
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final int pieceCode = this.pieces[i];
+            String tileText = "-";
+            if (pieceCode != NO_PIECE) {
+                tileText = PIECE_TYPES[typeOf(pieceCode)].toString();
+                tileText = colourOf(pieceCode) == BLACK ? tileText.toLowerCase() : tileText;
+            }
+            builder.append(String.format("%3s", tileText));
+            if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
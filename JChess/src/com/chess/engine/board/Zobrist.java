@@ -0,0 +1,88 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Random;
+
+// Zobrist hashing gives every position a 64-bit key. Each piece on each tile, black to move, each set of castling
+// rights and each en passant file has a random number, and a position's key is the XOR of the numbers of everything
+// in it. Since XOR undoes itself, a move updates the key by XORing out what it takes away and XORing in what it adds.
+// The numbers come from a fixed seed, so keys are the same from one run to the next.
+public final class Zobrist {
+
+    private static final long SEED = 0x4A436865737321L;
+
+    // Indexed [alliance.ordinal()][pieceType.ordinal()][tileCoordinate]
+    private static final long[][][] PIECE_KEYS =
+            new long[Alliance.values().length][PieceType.values().length][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[CastlingRights.ALL + 1];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[][] allianceKeys : PIECE_KEYS) {
+            for (final long[] pieceKeys : allianceKeys) {
+                for (int i = 0; i < pieceKeys.length; i++) {
+                    pieceKeys[i] = random.nextLong();
+                }
+            }
+        }
+        // No castling rights hash to nothing, like an empty en passant file
+        for (int i = 1; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    // Throws a runtime error whenever someone tries to instantiate because we just want it to be a utility class.
+    private Zobrist() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static long pieceKey(final Alliance alliance, final PieceType pieceType, final int tileCoordinate) {
+        return PIECE_KEYS[alliance.ordinal()][pieceType.ordinal()][tileCoordinate];
+    }
+
+    public static long pieceKey(final Piece piece) {
+        return pieceKey(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+    }
+
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    // Only the file of the en passant tile (or of the pawn that jumped, which is the same) counts. A negative tile
+    // coordinate means there is no en passant capture to be made.
+    public static long enPassantKey(final int tileCoordinate) {
+        return tileCoordinate < 0 ? 0L : EN_PASSANT_KEYS[tileCoordinate % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    // The key is flipped whenever the side to move changes
+    public static long sideKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+
+    // Hashes a whole position from scratch
+    public static long calculateKey(final BitBoardPosition position, final Alliance moveMaker,
+                                    final int castlingRights, final int enPassantTile) {
+        long key = castlingKey(castlingRights) ^ enPassantKey(enPassantTile);
+        if (moveMaker.isBlack()) {
+            key ^= sideKey();
+        }
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                for (long tiles = position.getPieceBitBoard(alliance, pieceType); tiles != BitBoards.EMPTY;
+                     tiles = BitBoards.withoutFirstTile(tiles)) {
+                    key ^= pieceKey(alliance, pieceType, BitBoards.firstTile(tiles));
+                }
+            }
+        }
+        return key;
+    }
+}
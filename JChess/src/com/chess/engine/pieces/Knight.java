@@ -3,23 +3,14 @@ package com.chess.engine.pieces;
 import com.chess.engine.Alliance;
 
 // Could just import com.chess.engine.board
+import com.chess.engine.board.AttackTables;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-
-import static com.chess.engine.board.Move.*;
 
 public class Knight extends Piece {
 
-    // Offsets with respect to the piece's current position
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {-17, -15, -10, -6, 6, 10, 15, 17};
-
     public Knight(final int piecePosition, final Alliance pieceAlliance) {
         super(piecePosition, PieceType.KNIGHT, pieceAlliance, true);
     }
@@ -31,44 +22,17 @@ public class Knight extends Piece {
     // Returns a list of all the legal moves that the knight can make on a given board.
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-        // For each candidate legal move check if the move is valid. If so, check if the tile is occupied by your
-        // own piece. If not, add it to the list of legal moves.
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATES) {
-            // Apply the offset based on the particular piece to get all candidate move coordinates.
-            final int candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-            if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                // Checks edge cases
-                if (isFirstColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isSecondColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isSeventhColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isEighthColumnExclusion(this.piecePosition, currentCandidateOffset)) {
-                    continue;
-                }
-                final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                // Non-attacking legal move
-                if (!candidateDestinationTile.isTileOccupied()) {
-                    legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                } else { // Piece occupies candidate destination tile
-                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-
-                    // Attacking move
-                    if (this.pieceAlliance != pieceAlliance) {
-                        legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate,
-                                pieceAtDestination));
-                    }
-                }
-            }
-        }
-        return Collections.unmodifiableList(legalMoves);
+        // Looks up the precomputed tiles a knight attacks from its position, and keeps those that are not occupied by
+        // its own pieces
+        final long destinations = AttackTables.knightAttacks(this.piecePosition) &
+                                  ~board.getOccupancy(this.pieceAlliance);
+        return createMoves(board, destinations);
     }
 
     @Override
     // Creates and returns a knight whose position has been updated by the given move.
     public Knight movePiece(final Move move) {
-        // TODO: Optimize by pre-computing pieces
-        return new Knight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return PieceCache.getKnight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), true);
     }
 
     @Override
@@ -76,26 +40,4 @@ public class Knight extends Piece {
     public String toString() {
         return PieceType.KNIGHT.toString();
     }
-
-////// EDGE CASE METHODS TO CHECK FOR VALID KNIGHT MOVES////////////////////////////////////////////////////////////////
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -17 || candidateOffset == -10 ||
-                candidateOffset == 6 || candidateOffset == 15);
-    }
-
-    private static boolean isSecondColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.SECOND_COLUMN[currentPosition] && (candidateOffset == -10 || candidateOffset == 6);
-    }
-
-    private static boolean isSeventhColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.SEVENTH_COLUMN[currentPosition] && (candidateOffset == -6 || candidateOffset == 10);
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -15 || candidateOffset == -6 ||
-                candidateOffset == 10 || candidateOffset == 17);
-    }
-
-
-
 }
@@ -1,6 +1,8 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
@@ -14,8 +16,6 @@ import static com.chess.engine.board.Move.*;
 
 public class Pawn extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATE = { 7, 8, 9, 16};
-
     public Pawn(final int piecePosition, final Alliance pieceAlliance) {
         super(piecePosition, PieceType.PAWN, pieceAlliance, true);
     }
@@ -27,75 +27,47 @@ public class Pawn extends Piece {
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for(int currentCandidateOffset: CANDIDATE_MOVE_COORDINATE) {
-            final int candidateDestinationCoordinate = this.piecePosition +
-                      (this.pieceAlliance.getDirection() * currentCandidateOffset);
-            if(!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) { // Illegal move (i.e. off board)
-                continue;
+        final int direction = this.pieceAlliance.getDirection();
+
+        // Normal pawn moves
+        final int pushCoordinate = this.piecePosition + (direction * 8);
+        if(BoardUtils.isValidTileCoordinate(pushCoordinate) && !board.isTileOccupied(pushCoordinate)) {
+            if(this.pieceAlliance.isPawnPromotionSquare(pushCoordinate)) {
+                legalMoves.add(new PawnPromotion(new PawnMove(board, this, pushCoordinate)));
+            } else {
+                legalMoves.add(new PawnMove(board, this, pushCoordinate));
+            }
+            // Checks for first pawn move, which may jump over the (empty) tile in front of it
+            final int jumpCoordinate = this.piecePosition + (direction * 16);
+            if(this.isFirstMove() &&
+               ((BoardUtils.SEVENTH_RANK[this.piecePosition] && this.getPieceAlliance().isBlack()) ||
+               (BoardUtils.SECOND_RANK[this.piecePosition] && this.getPieceAlliance().isWhite())) &&
+               !board.isTileOccupied(jumpCoordinate)) {
+                legalMoves.add(new PawnJump(board, this, jumpCoordinate));
+            }
+        }
+
+        // Diagonal attacks come from the precomputed pawn attack table, masked with the opponent's pieces
+        final long attacks = AttackTables.pawnAttacks(this.pieceAlliance, this.piecePosition);
+        final long captures = attacks &
+                              board.getOccupancy(this.pieceAlliance.isWhite() ? Alliance.BLACK : Alliance.WHITE);
+        for(long tiles = captures; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            final int candidateDestinationCoordinate = BitBoards.firstTile(tiles);
+            final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
+            if(this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
+                legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this,
+                        candidateDestinationCoordinate, pieceOnCandidate)));
+            } else {
+                legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
             }
-            // Normal pawn moves
-            if(currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                if(this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                    legalMoves.add(new PawnPromotion(new PawnMove(board, this, candidateDestinationCoordinate)));
-                } else {
-                    legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
-                }
-            } else if(currentCandidateOffset == 16 && this.isFirstMove() && // Checks for first pawn move
-                    ((BoardUtils.SEVENTH_RANK[this.piecePosition] && this.getPieceAlliance().isBlack()) ||
-                    (BoardUtils.SECOND_RANK[this.piecePosition] && this.getPieceAlliance().isWhite()))) {
-                final int behindCandidateDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * 8);
-                if(!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied() &&
-                        !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    legalMoves.add(new PawnJump(board, this, candidateDestinationCoordinate));
-                }
-            } else if(currentCandidateOffset == 7 && // Checks to see if a diagonal move is valid
-                     !(BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-                     BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack())) {
-                if(board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if(this.getPieceAlliance() != pieceOnCandidate.getPieceAlliance()) {
-                        if(this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this,
-                                    candidateDestinationCoordinate, pieceOnCandidate)));
-                        } else {
-                            legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                    pieceOnCandidate));
-                        }
-                    }
-                } else if(board.getEnPassantPawn() != null) { // There is an En Passant Pawn
-                        if(board.getEnPassantPawn().getPiecePosition() ==
-                           (this.piecePosition - this.pieceAlliance.getDirection())){ // it is adjacent to the current pawn
-                            final Piece pieceOnCandidate = board.getEnPassantPawn();
-                            if(this.pieceAlliance != board.getEnPassantPawn().getPieceAlliance()) { // it can be taken
-                                legalMoves.add(new PawnEnPassantAttackMove(board, this,
-                                               candidateDestinationCoordinate, pieceOnCandidate));
-                            }
-                    }
-                }
-            } else if(currentCandidateOffset == 9 && // Checks to see if a diagonal move is valid
-                     !(BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack() ||
-                     BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite())) {
-                if(board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.getPieceAlliance() != pieceOnCandidate.getPieceAlliance()) {
-                        if(this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this,
-                                    candidateDestinationCoordinate, pieceOnCandidate)));
-                        } else {
-                            legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                    pieceOnCandidate));
-                        }
-                    }
-                } else if(board.getEnPassantPawn() != null) { // There is an En Passant Pawn
-                    if(board.getEnPassantPawn().getPiecePosition() ==
-                            (this.piecePosition + this.pieceAlliance.getDirection())){ // it is adjacent to the current pawn
-                        final Piece pieceOnCandidate = board.getEnPassantPawn();
-                        if(this.pieceAlliance != board.getEnPassantPawn().getPieceAlliance()) { // it can be taken
-                            legalMoves.add(new PawnEnPassantAttackMove(board, this,
-                                    candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                }
+        }
+
+        // There is an En Passant Pawn: it can be taken by moving onto the (empty) tile it jumped over
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if(enPassantPawn != null && this.pieceAlliance != enPassantPawn.getPieceAlliance()) {
+            final int enPassantCoordinate = enPassantPawn.getPiecePosition() + (direction * 8);
+            if(BitBoards.isSet(attacks, enPassantCoordinate) && !board.isTileOccupied(enPassantCoordinate)) {
+                legalMoves.add(new PawnEnPassantAttackMove(board, this, enPassantCoordinate, enPassantPawn));
             }
         }
         return Collections.unmodifiableList(legalMoves);
@@ -104,8 +76,7 @@ public class Pawn extends Piece {
     @Override
     // Creates and returns a pawn whose position has been updated by the given move.
     public Pawn movePiece(final Move move) {
-        // TODO: Optimize by pre-computing pieces
-        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return PieceCache.getPawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), true);
     }
 
     @Override
@@ -116,6 +87,6 @@ public class Pawn extends Piece {
 
     // TODO: Allow for under promotion
     public Piece getPromotionPiece() {
-        return new Queen(this.piecePosition, this.pieceAlliance, false);
+        return PieceCache.getQueen(this.piecePosition, this.pieceAlliance, false);
     }
 }
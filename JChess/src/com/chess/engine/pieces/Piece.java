@@ -1,10 +1,16 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static com.chess.engine.board.Move.*;
 
 public abstract class Piece {
 
@@ -77,6 +83,22 @@ public abstract class Piece {
     // Returns a new piece representing a move (does so by updating the piece's position).
     public abstract Piece movePiece(Move move);
 
+    // Creates a move to every tile of the given bit board, attacking the enemy piece on occupied tiles. The bit
+    // board must not contain tiles occupied by the piece's own alliance.
+    protected Collection<Move> createMoves(final Board board, final long destinations) {
+        final List<Move> moves = new ArrayList<>(BitBoards.count(destinations));
+        for (long tiles = destinations; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            final int destinationCoordinate = BitBoards.firstTile(tiles);
+            if (board.isTileOccupied(destinationCoordinate)) {
+                moves.add(new AttackMove(board, this, destinationCoordinate,
+                        board.getTile(destinationCoordinate).getPiece()));
+            } else {
+                moves.add(new MajorMove(board, this, destinationCoordinate));
+            }
+        }
+        return Collections.unmodifiableList(moves);
+    }
+
     public enum PieceType {
         PAWN("P", 100) {
             @Override
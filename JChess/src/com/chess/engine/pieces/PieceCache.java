@@ -0,0 +1,69 @@
+package com.chess.engine.pieces;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+
+// Pieces are immutable and fully determined by their type, alliance, position and first-move flag (and, for kings,
+// whether they have castled), so there are only a few thousand distinct pieces. PieceCache creates every one of them
+// up front and hands out the shared instances, so moving a piece never allocates and equal pieces are usually the
+// same object. Tables are indexed [alliance.ordinal()][piecePosition][isFirstMove ? 1 : 0].
+public final class PieceCache {
+
+    private static final int NUM_ALLIANCES = Alliance.values().length;
+
+    private static final Pawn[][][] PAWNS = new Pawn[NUM_ALLIANCES][BoardUtils.NUM_TILES][2];
+    private static final Knight[][][] KNIGHTS = new Knight[NUM_ALLIANCES][BoardUtils.NUM_TILES][2];
+    private static final Bishop[][][] BISHOPS = new Bishop[NUM_ALLIANCES][BoardUtils.NUM_TILES][2];
+    private static final Rook[][][] ROOKS = new Rook[NUM_ALLIANCES][BoardUtils.NUM_TILES][2];
+    private static final Queen[][][] QUEENS = new Queen[NUM_ALLIANCES][BoardUtils.NUM_TILES][2];
+    // Indexed one level further by [isCastled ? 1 : 0]
+    private static final King[][][][] KINGS = new King[NUM_ALLIANCES][BoardUtils.NUM_TILES][2][2];
+
+    static {
+        for (final Alliance alliance : Alliance.values()) {
+            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                for (int firstMove = 0; firstMove < 2; firstMove++) {
+                    final int a = alliance.ordinal();
+                    final boolean isFirstMove = firstMove == 1;
+                    PAWNS[a][i][firstMove] = new Pawn(i, alliance, isFirstMove);
+                    KNIGHTS[a][i][firstMove] = new Knight(i, alliance, isFirstMove);
+                    BISHOPS[a][i][firstMove] = new Bishop(i, alliance, isFirstMove);
+                    ROOKS[a][i][firstMove] = new Rook(i, alliance, isFirstMove);
+                    QUEENS[a][i][firstMove] = new Queen(i, alliance, isFirstMove);
+                    KINGS[a][i][firstMove][0] = new King(i, alliance, isFirstMove, false);
+                    KINGS[a][i][firstMove][1] = new King(i, alliance, isFirstMove, true);
+                }
+            }
+        }
+    }
+
+    // Throws a runtime error whenever someone tries to instantiate because we just want it to be a utility class.
+    private PieceCache() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static Pawn getPawn(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return PAWNS[pieceAlliance.ordinal()][piecePosition][isFirstMove ? 1 : 0];
+    }
+
+    public static Knight getKnight(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return KNIGHTS[pieceAlliance.ordinal()][piecePosition][isFirstMove ? 1 : 0];
+    }
+
+    public static Bishop getBishop(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return BISHOPS[pieceAlliance.ordinal()][piecePosition][isFirstMove ? 1 : 0];
+    }
+
+    public static Rook getRook(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return ROOKS[pieceAlliance.ordinal()][piecePosition][isFirstMove ? 1 : 0];
+    }
+
+    public static Queen getQueen(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return QUEENS[pieceAlliance.ordinal()][piecePosition][isFirstMove ? 1 : 0];
+    }
+
+    public static King getKing(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove,
+                               final boolean isCastled) {
+        return KINGS[pieceAlliance.ordinal()][piecePosition][isFirstMove ? 1 : 0][isCastled ? 1 : 0];
+    }
+}
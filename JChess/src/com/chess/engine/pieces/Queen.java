@@ -1,18 +1,13 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 public class Queen extends Piece {
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -8, -7, -1, 1, 7, 8, 9};
 
     public Queen(final int piecePosition, final Alliance pieceAlliance) {
         super(piecePosition, PieceType.QUEEN, pieceAlliance, true);
@@ -23,47 +18,18 @@ public class Queen extends Piece {
     }
 
     @Override
-    public Collection<Move> calculateLegalMoves(Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-        // Loops over all the possible movement vectors that a queen can take, and adds all legal moves to the list of
-        // legal moves
-        for (final int candidateCoordinateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-            // Loops over all the legal moves for a particular move vector. Ends when the moves have gone off the board
-            // or a piece is in the way.
-            while(BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                // Checks edge cases
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset) ||
-                        isEighthColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)) {
-                    break;
-                }
-                candidateDestinationCoordinate += candidateCoordinateOffset;
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    // Non-attacking legal move
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                    } else { // Piece occupies candidate destination tile
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        // Attacking move
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate,
-                                    pieceAtDestination));
-                        }
-                        break; // exits the loop if the next tile in the movement vector is occupied
-                    }
-                }
-            }
-        }
-        return Collections.unmodifiableList(legalMoves);
+    public Collection<Move> calculateLegalMoves(final Board board) {
+        // Looks up every tile a queen attacks from its position in the magic bit board tables, and keeps those that are
+        // not occupied by its own pieces
+        final long destinations = AttackTables.queenAttacks(this.piecePosition, board.getOccupancy()) &
+                                  ~board.getOccupancy(this.pieceAlliance);
+        return createMoves(board, destinations);
     }
 
     @Override
     // Creates and returns a queen whose position has been updated by the given move.
     public Queen movePiece(final Move move) {
-        // TODO: Optimize by pre-computing pieces
-        return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return PieceCache.getQueen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), true);
     }
 
     @Override
@@ -71,14 +37,4 @@ public class Queen extends Piece {
     public String toString() {
         return PieceType.QUEEN.toString();
     }
-
-////EDGE CASES//////////////////////////////////////////////////////////////////////////////////////////////////////////
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == 7 ||
-                candidateOffset == -1);
-    }
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 9 ||
-                candidateOffset == 1);
-    }
 }
@@ -1,7 +1,9 @@
 package com.chess.engine.player.AI;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
 
 public interface BoardEvaluator {
     int evaluate(Board board, int depth);
+    int evaluate(SearchBoard board, int depth);
 }
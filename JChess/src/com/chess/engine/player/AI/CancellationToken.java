@@ -0,0 +1,56 @@
+package com.chess.engine.player.AI;
+
+// CancellationToken lets one thread stop a search running on another, such as the GUI stopping a search it no longer
+// needs. A search polls its token every thousand or so nodes, and stops as soon as the token has been cancelled or its
+// deadline has passed, then returns the best move of the deepest search it finished. The deadline can be set after
+// the search has started, which is how a search pondering on the opponent's time becomes a timed one.
+public final class CancellationToken {
+
+    // The deadline of a token that only stops when it is cancelled
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // In milliseconds, as given by System.currentTimeMillis()
+    private volatile long deadlineMillis;
+    private volatile boolean cancelled;
+
+    // Constructs a token that only stops a search when it is cancelled
+    public CancellationToken() {
+        this(NO_DEADLINE);
+    }
+
+    // Constructs a token that also stops a search once System.currentTimeMillis() reaches the deadline
+    public CancellationToken(final long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    // Stops every search polling this token. Safe to call from any thread, any number of times.
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    // Returns whether cancel has been called, whatever the deadline
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    // Returns whether a search polling the token has to stop, because it is cancelled or past its deadline
+    public boolean shouldStop() {
+        final long deadlineMillis = this.deadlineMillis;
+        return this.cancelled || (deadlineMillis != NO_DEADLINE && System.currentTimeMillis() >= deadlineMillis);
+    }
+
+    public long getDeadlineMillis() {
+        return this.deadlineMillis;
+    }
+
+    // Sets the deadline, which also applies to searches already polling the token
+    public void setDeadlineMillis(final long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    // Returns the number of milliseconds left until the deadline, which is NO_DEADLINE if there is none
+    public long getMillisLeft(final long now) {
+        final long deadlineMillis = this.deadlineMillis;
+        return deadlineMillis == NO_DEADLINE ? NO_DEADLINE : Math.max(0, deadlineMillis - now);
+    }
+}
@@ -0,0 +1,354 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.chess.engine.player.AI.Minimax.MATE;
+import static com.chess.engine.player.AI.Minimax.MATE_BOUND;
+import static com.chess.engine.player.AI.Minimax.MAX_DEPTH;
+
+// ForkJoinMinimax is a parallel search whose result does not depend on how its threads are scheduled, so the same
+// position and depth always give the same move and score, which Lazy SMP cannot promise. It splits the work Young
+// Brothers Wait style: at the root and at the nodes of the principal variation, the node's first move is searched
+// on its own, and only once its score is known are the younger brothers, the node's other moves, handed to a
+// ForkJoinPool as tasks. Each task searches one move with a zero-width window around the first move's score. The
+// moves that beat it are then searched again with the full window, one after another in move order, just as a
+// serial principal variation search would. A task whose move cuts the node off cancels the tasks of the moves after
+// it, which the node no longer needs, while the tasks before it still finish, so the node always ends with the first
+// cutoff in move order.
+// Boards are immutable, so a task is handed the Board after its move and searches it on a SearchBoard of its own.
+// Tasks, and nodes shallower than SPLIT_MIN_DEPTH, are searched serially by the worker thread's Searcher. Its
+// transposition table and move ordering are emptied before every task, so what a task finds never depends on which
+// tasks its thread ran before. That gives up the sharing of the table that Lazy SMP lives on, and is the price of
+// reproducible results. A search given a deadline, or cancelled, stops where it is and keeps the deepest search it
+// finished, and so is no longer reproducible.
+public class ForkJoinMinimax implements MoveStrategy {
+
+    // Nodes on the principal variation searched at least this deep have their younger brothers searched in parallel
+    private static final int SPLIT_MIN_DEPTH = 4;
+    // The size of each worker thread's transposition table
+    private static final int TASK_TABLE_SIZE_MB = 1;
+
+    private static final int INFINITY = MATE + 1;
+    private static final int DRAW = 0;
+
+    private final int searchDepth;
+    private final ForkJoinPool pool;
+    private final BoardEvaluator boardEvaluator = new StandardBoardEvaluator();
+    // One Searcher per worker thread, with a transposition table of its own
+    private final ThreadLocal<Searcher> searchers = new ThreadLocal<Searcher>() {
+        @Override
+        protected Searcher initialValue() {
+            return new Searcher(ForkJoinMinimax.this.boardEvaluator, new TranspositionTable(TASK_TABLE_SIZE_MB));
+        }
+    };
+    private final LongAdder nodes = new LongAdder();
+    // The principal variation of the last search, whose moves the next, deeper search tries first
+    private int[] principalVariation = new int[MAX_DEPTH + 1];
+    // The token of the search being run, polled by every task's Searcher. Like the principal variation and the node
+    // count, it belongs to the one search execute runs at a time.
+    private CancellationToken cancellationToken = new CancellationToken();
+
+    // Constructs a ForkJoinMinimax that always searches to the given depth on the given number of threads
+    public ForkJoinMinimax(final int searchDepth, final int threads) {
+        if(searchDepth < 1 || searchDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("The search depth must be between 1 and " + MAX_DEPTH);
+        }
+        if(threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread");
+        }
+        this.searchDepth = searchDepth;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    @Override
+    public String toString() {
+        return "ForkJoinMiniMax";
+    }
+
+    public int getThreads() {
+        return this.pool.getParallelism();
+    }
+
+    // Searches without a listener of the caller's own, so the search's progress and node count are printed instead
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        System.out.println(board.getCurrentPlayer() + " thinking with depth = " + this.searchDepth +
+                           " on " + getThreads() + " fork/join threads");
+        final Move bestMove = execute(board, new CancellationToken(), Minimax.PRINTING_LISTENER);
+        System.out.println("Time taken: " + (System.currentTimeMillis() - startTime) + ", " + this.nodes.sum() +
+                           " nodes");
+        return bestMove;
+    }
+
+    // Searches to depth 1, then one ply deeper each time up to the search depth or until the token is cancelled, and
+    // returns the best move of the deepest search finished, or null if there are no moves. The first search always
+    // finishes. A ForkJoinMinimax runs one search at a time, so a second call waits for the first to return.
+    @Override
+    public synchronized Move execute(final Board board, final CancellationToken cancellationToken,
+                                     final SearchListener listener) {
+        final long startTime = System.currentTimeMillis();
+        this.nodes.reset();
+        this.principalVariation = new int[MAX_DEPTH + 1];
+        this.cancellationToken = cancellationToken;
+
+        for(int depth = 1; depth <= this.searchDepth; depth++) {
+            final int rootDepth = depth;
+            final int[] line = new int[MAX_DEPTH + 1];
+            final int score = this.pool.invoke(new RecursiveTask<Integer>() {
+                @Override
+                protected Integer compute() {
+                    return searchPvNode(board, rootDepth, -INFINITY, INFINITY, 0, true, line);
+                }
+            });
+            // An unfinished search may not have looked at the best move yet, so its choice is thrown away
+            if(line[0] == PackedMove.NO_MOVE || (depth > 1 && cancellationToken.shouldStop())) {
+                break;
+            }
+            this.principalVariation = line;
+            listener.searchProgressed(new SearchProgress(depth, score, this.nodes.sum(),
+                                                         System.currentTimeMillis() - startTime, trimLine(line)));
+        }
+
+        final int bestMove = this.principalVariation[0];
+        return bestMove == PackedMove.NO_MOVE ? null : PackedMove.toMove(board, bestMove);
+    }
+
+    // Searches a node of the principal variation, level plies below the root, and returns its score. Its best line
+    // is written into line, starting with its best move, which stays NO_MOVE if no move beats alpha. When the path
+    // to the node follows the last search's principal variation, that variation's move is tried first.
+    private int searchPvNode(final Board board, final int depth, int alpha, final int beta, final int level,
+                             final boolean followsPv, final int[] line) {
+        line[0] = PackedMove.NO_MOVE;
+        if(level > 0 && (board.isRepetition() || board.isFiftyMoveDraw())) {
+            return DRAW;
+        }
+        if(level > 0 && depth < SPLIT_MIN_DEPTH) {
+            return searchSerially(board, depth, alpha, beta);
+        }
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int[] moves = orderMoves(searchBoard, followsPv ? this.principalVariation[level] : PackedMove.NO_MOVE);
+        if(moves.length == 0) {
+            return searchBoard.isInCheck() ? -MATE : DRAW;
+        }
+        // Boards work out their players on first use, so every child is created here rather than in the tasks
+        final Board[] children = new Board[moves.length];
+        for(int i = 0; i < moves.length; i++) {
+            children[i] = PackedMove.toMove(board, moves[i]).execute();
+        }
+
+        // The eldest brother is searched first, on its own
+        final int[] childLine = new int[MAX_DEPTH + 1];
+        int bestValue = parentScore(searchPvNode(children[0], depth - 1, childScore(beta), childScore(alpha),
+                                                 level + 1, followsPv && moves[0] == this.principalVariation[level],
+                                                 childLine));
+        if(bestValue > alpha) {
+            alpha = bestValue;
+            setLine(line, moves[0], childLine);
+            if(alpha >= beta) {
+                return bestValue;
+            }
+        }
+
+        // Then the younger brothers, all at once, each with a zero-width window around the eldest brother's score
+        final YoungerBrotherTask[] tasks = new YoungerBrotherTask[moves.length - 1];
+        for(int i = 0; i < tasks.length; i++) {
+            tasks[i] = new YoungerBrotherTask(children[i + 1], depth - 1, alpha, beta, i, tasks);
+        }
+        for(int i = tasks.length - 1; i >= 0; i--) {
+            tasks[i].fork();
+        }
+
+        // Their results are taken in move order, and the moves that beat alpha are searched again with the full window.
+        // Only the nodes of the tasks whose results are taken count, since how far a cancelled task got before it
+        // stopped depends on how the threads were scheduled.
+        final int scoutAlpha = alpha;
+        for(int i = 0; i < tasks.length; i++) {
+            int currentValue = tasks[i].join();
+            this.nodes.add(tasks[i].nodeCount);
+            if(currentValue > scoutAlpha && currentValue < beta) {
+                currentValue = parentScore(searchPvNode(children[i + 1], depth - 1, childScore(beta),
+                                                        childScore(alpha), level + 1, false, childLine));
+            } else {
+                // A move that was not searched again has no line below it
+                childLine[0] = PackedMove.NO_MOVE;
+            }
+            if(currentValue > bestValue) {
+                bestValue = currentValue;
+                if(currentValue > alpha) {
+                    alpha = currentValue;
+                    setLine(line, moves[i + 1], childLine);
+                    // Pruning occurs, and the moves after this one are not needed
+                    if(alpha >= beta) {
+                        cancelFrom(tasks, i + 1);
+                        break;
+                    }
+                }
+            }
+        }
+        return bestValue;
+    }
+
+    // Searches a position on this thread's Searcher, starting from an empty transposition table and move ordering
+    private int searchSerially(final Board board, final int depth, final int alpha, final int beta) {
+        final Searcher searcher = this.searchers.get();
+        searcher.getTranspositionTable().clear();
+        searcher.init(board, System.currentTimeMillis(), Minimax.NO_LIMIT, Minimax.NO_LIMIT, this.cancellationToken);
+        final int score = searcher.searchWindow(depth, alpha, beta);
+        this.nodes.add(searcher.getNodes());
+        return score;
+    }
+
+    // Returns the node's moves in the order they are searched: the hinted move first, then captures and promotions,
+    // the most valuable victims first, then the quiet moves in the order they were generated, and last the captures
+    // that lose material in their static exchange
+    private static int[] orderMoves(final SearchBoard board, final int hintedMove) {
+        final int[] moves = board.generateMoves();
+        final int[] scores = new int[moves.length];
+        for(int i = 0; i < moves.length; i++) {
+            final int move = moves[i];
+            if(move == hintedMove) {
+                scores[i] = Integer.MAX_VALUE;
+            } else if(PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                scores[i] = StaticExchange.isNotLosing(board, move) ?
+                            MoveOrdering.mvvLva(board, move) : Integer.MIN_VALUE;
+            } else {
+                scores[i] = 0;
+            }
+        }
+        // An insertion sort, which keeps moves of equal score in the order they were generated
+        for(int i = 1; i < moves.length; i++) {
+            final int move = moves[i];
+            final int score = scores[i];
+            int j = i - 1;
+            while(j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+        return moves;
+    }
+
+    // Returns the moves of the line up to its first NO_MOVE
+    private static int[] trimLine(final int[] line) {
+        int length = 0;
+        while(length < line.length && line[length] != PackedMove.NO_MOVE) {
+            length++;
+        }
+        final int[] moves = new int[length];
+        System.arraycopy(line, 0, moves, 0, length);
+        return moves;
+    }
+
+    private static void setLine(final int[] line, final int move, final int[] childLine) {
+        line[0] = move;
+        System.arraycopy(childLine, 0, line, 1, line.length - 1);
+    }
+
+    private static void cancelFrom(final YoungerBrotherTask[] tasks, final int first) {
+        for(int i = first; i < tasks.length; i++) {
+            tasks[i].cancelSearch();
+        }
+    }
+
+    // Turns the score of a child, searched on a board of its own, into its parent's score. Scores are negamax scores,
+    // and a mate is one ply further from the parent than from the child.
+    private static int parentScore(final int childScore) {
+        final int score = -childScore;
+        if(score >= MATE_BOUND && score < INFINITY) {
+            return score - 1;
+        }
+        if(score <= -MATE_BOUND && score > -INFINITY) {
+            return score + 1;
+        }
+        return score;
+    }
+
+    // The inverse of parentScore, for handing a window down to a child
+    private static int childScore(final int parentScore) {
+        final int score = -parentScore;
+        if(score <= -MATE_BOUND + 1 && score > -INFINITY) {
+            return score - 1;
+        }
+        if(score >= MATE_BOUND - 1 && score < INFINITY) {
+            return score + 1;
+        }
+        return score;
+    }
+
+    // Searches one younger brother with a zero-width window around alpha, and returns its score from its parent's
+    // point of view
+    private final class YoungerBrotherTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        private final int index;
+        // The tasks of all the node's younger brothers, in move order
+        private final YoungerBrotherTask[] brothers;
+        // The Searcher running this task, guarded by the task's lock so a cancellation never stops the Searcher once
+        // it has moved on to another task
+        private Searcher searcher;
+        private boolean cancelled;
+        // The nodes this task searched, read by the node once it has joined the task
+        private long nodeCount;
+
+        private YoungerBrotherTask(final Board board, final int depth, final int alpha, final int beta,
+                                   final int index, final YoungerBrotherTask[] brothers) {
+            this.board = board;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.index = index;
+            this.brothers = brothers;
+        }
+
+        @Override
+        protected Integer compute() {
+            final Searcher searcher = ForkJoinMinimax.this.searchers.get();
+            searcher.getTranspositionTable().clear();
+            searcher.init(this.board, System.currentTimeMillis(), Minimax.NO_LIMIT, Minimax.NO_LIMIT,
+                          ForkJoinMinimax.this.cancellationToken);
+            synchronized (this) {
+                if(this.cancelled) {
+                    return -INFINITY;
+                }
+                this.searcher = searcher;
+            }
+            final int score = parentScore(searcher.searchWindow(this.depth, childScore(this.alpha + 1),
+                                                                childScore(this.alpha)));
+            synchronized (this) {
+                this.searcher = null;
+            }
+            this.nodeCount = searcher.getNodes();
+            if(searcher.isStopped()) {
+                return -INFINITY;
+            }
+            // A cutoff makes every later brother's search useless
+            if(score >= this.beta) {
+                cancelFrom(this.brothers, this.index + 1);
+            }
+            return score;
+        }
+
+        private synchronized void cancelSearch() {
+            this.cancelled = true;
+            if(this.searcher != null) {
+                this.searcher.stop();
+            }
+        }
+    }
+}
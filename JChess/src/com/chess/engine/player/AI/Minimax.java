@@ -2,112 +2,151 @@ package com.chess.engine.player.AI;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
-import com.chess.engine.player.MoveTransition;
-
-// TODO: best moves should be explored first (ie pawn taking piece). Possible solution is to order legal moves
-// TODO: by the likelihood that they'll be good.
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+// Minimax searches with iterative deepening: it searches to depth 1, then 2, and so on, until it reaches its maximum
+// depth or runs out of its time or node budget, and plays the best move of the deepest search it finished. Each
+// search leaves its best moves in the transposition table, where the next, deeper search finds and tries them first.
+// Scores are negamax scores: a score is always from the point of view of the player to move, so one routine searches
+// for both players, and a child's score is negated to get its parent's.
+// With more than one thread, Minimax runs a Lazy SMP search: every thread searches the same root position with its
+// own Searcher, and the threads share nothing but the transposition table. The helper threads fill the table with
+// results that the main thread then finds instead of searching them itself. Helpers on odd threads start one ply
+// deeper, so the threads spread out over different depths rather than all searching the same nodes in step. The
+// main thread's move is always the one played, and the helpers stop as soon as it finishes.
 public class Minimax implements MoveStrategy {
-    private final BoardEvaluator boardEvaluator;
-    private int searchDepth;
 
+    // No limit on the search's time or nodes
+    public static final long NO_LIMIT = Long.MAX_VALUE;
+    // The deepest a search can go, which leaves the board room for the moves made below the root
+    public static final int MAX_DEPTH = 64;
+
+    // The score of being checkmated at the root. Being checkmated n moves into the search scores MATE - n, so nearer
+    // mates score higher, and any score beyond MATE_BOUND is a mate.
+    public static final int MATE = 1000000;
+    public static final int MATE_BOUND = MATE - SearchBoard.MAX_PLY;
+
+    // Prints each depth the search finishes, for when no one else is listening
+    static final SearchListener PRINTING_LISTENER = new SearchListener() {
+        @Override
+        public void searchProgressed(final SearchProgress progress) {
+            System.out.println(progress);
+        }
+    };
+
+    private final int maxDepth;
+    private final long timeBudgetMillis;
+    private final long nodeBudget;
+    // Positions already searched, which may be shared with other searches
+    private final TranspositionTable transpositionTable;
+    // One per thread, the main thread's first
+    private final Searcher[] searchers;
+    // The stats of the last search, all threads together
+    private SearchStats lastSearchStats = new SearchStats();
+
+    // Constructs a Minimax that always searches to the given depth
     public Minimax(final int searchDepth) {
-        this.boardEvaluator = new StandardBoardEvaluator();
-        this.searchDepth = searchDepth;
+        this(searchDepth, new TranspositionTable());
     }
 
-    @Override
-    public String toString() {
-        return "AmirMiniMax";
+    public Minimax(final int searchDepth, final TranspositionTable transpositionTable) {
+        this(searchDepth, NO_LIMIT, NO_LIMIT, transpositionTable);
     }
 
-    @Override
-    public Move execute(Board board) {
-        final long startTime = System.currentTimeMillis();
-        Move bestMove = null;
-        int greatestSeenValue = Integer.MIN_VALUE;
-        int lowestSeenValue = Integer.MAX_VALUE;
-        int currValue;
+    // Constructs a Minimax that searches as deep as it can, up to maxDepth, within the given time and number of nodes
+    public Minimax(final int maxDepth, final long timeBudgetMillis, final long nodeBudget,
+                   final TranspositionTable transpositionTable) {
+        this(maxDepth, timeBudgetMillis, nodeBudget, 1, transpositionTable);
+    }
 
-        if(board.getWhitePieces().size() + board.getBlackPieces().size() <= 10) {
-            this.searchDepth += 4;
+    // Constructs a Minimax that searches on the given number of threads. The node budget is the main thread's.
+    public Minimax(final int maxDepth, final long timeBudgetMillis, final long nodeBudget, final int threads,
+                   final TranspositionTable transpositionTable) {
+        if(maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("The search depth must be between 1 and " + MAX_DEPTH);
         }
+        if(threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread");
+        }
+        this.maxDepth = maxDepth;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.nodeBudget = nodeBudget;
+        this.transpositionTable = transpositionTable;
+        this.searchers = new Searcher[threads];
+        final BoardEvaluator boardEvaluator = new StandardBoardEvaluator();
+        for(int i = 0; i < threads; i++) {
+            this.searchers[i] = new Searcher(boardEvaluator, transpositionTable);
+        }
+    }
 
-        System.out.println(board.getCurrentPlayer() + " thinking with depth = " + this.searchDepth);
-        int numMoves = board.getCurrentPlayer().getLegalMoves().size(); // For test purposes
+    @Override
+    public String toString() {
+        return "AmirMiniMax";
+    }
 
-        for (Move move : board.getCurrentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()) {
+    public int getThreads() {
+        return this.searchers.length;
+    }
 
-                currValue = minimax(moveTransition.getTransitionBoard(), this.searchDepth - 1,
-                            Integer.MIN_VALUE, Integer.MAX_VALUE, board.getCurrentPlayer().getAlliance().isWhite());
+    // Returns the stats of the last search, all threads together
+    public SearchStats getLastSearchStats() {
+        return this.lastSearchStats;
+    }
 
-                if(board.getCurrentPlayer().getAlliance().isWhite() && currValue > greatestSeenValue) {
-                    greatestSeenValue = currValue;
-                    bestMove = move;
-                } else if (board.getCurrentPlayer().getAlliance().isBlack() && currValue < lowestSeenValue) {
-                    lowestSeenValue = currValue;
-                    bestMove = move;
-                }
+    // Searches without a listener of the caller's own, so the search's progress and stats are printed instead
+    @Override
+    public Move execute(Board board) {
+        System.out.println(board.getCurrentPlayer() + " thinking with depth = " + this.maxDepth +
+                           " on " + this.searchers.length + " threads");
+        final Move bestMove = execute(board, new CancellationToken(), PRINTING_LISTENER);
+        System.out.println("Search: " + this.lastSearchStats);
+        System.out.println("Transposition table: " + this.transpositionTable);
+        return bestMove;
+    }
 
-            }
+    // Searches within the Minimax's budget, and stops sooner if the token's deadline comes first or the token is
+    // cancelled. The listener hears about each depth the main thread finishes.
+    @Override
+    public Move execute(final Board board, final CancellationToken cancellationToken, final SearchListener listener) {
+        final long startTime = System.currentTimeMillis();
+        final long timeBudgetMillis = Math.min(this.timeBudgetMillis, cancellationToken.getMillisLeft(startTime));
+
+        final Searcher mainSearcher = this.searchers[0];
+        mainSearcher.init(board, startTime, timeBudgetMillis, this.nodeBudget, cancellationToken);
+        final Thread[] helpers = new Thread[this.searchers.length - 1];
+        for(int i = 1; i < this.searchers.length; i++) {
+            final Searcher helper = this.searchers[i];
+            final int firstDepth = 1 + i % 2;
+            helper.init(board, startTime, NO_LIMIT, NO_LIMIT, cancellationToken);
+            helpers[i - 1] = new Thread(new Runnable() {
+                public void run() {
+                    helper.iterate(firstDepth, Minimax.this.maxDepth, null);
+                }
+            }, "Minimax helper " + i);
+            helpers[i - 1].setDaemon(true);
+            helpers[i - 1].start();
         }
 
-        final long executionTime = System.currentTimeMillis() - startTime;
-        System.out.println("Time taken: " + executionTime);
-        return bestMove;
-    }
+        mainSearcher.iterate(1, this.maxDepth, listener);
 
-////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-/////////////////// WHERE THE ACTUAL MINIMAX ALGORITHM DOES ITS WORK ///////////////////////////////////////////////////
-////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-    // This method generates a tree of positions and propagates the values at the bottom of the tree back to
-    // the top in such a way that satisfies the minimax decision algorithm
-    private int minimax(final Board board, final int depth, int alpha, int beta, boolean maximizingPlayer) {
-        if(depth == 0  || isEndGameScenario(board)) {
-            return this.boardEvaluator.evaluate(board, depth);
+        for(int i = 1; i < this.searchers.length; i++) {
+            this.searchers[i].stop();
         }
-        if (maximizingPlayer) {
-            int highestSeenValue = Integer.MIN_VALUE;
-            for(Move move : board.getCurrentPlayer().getLegalMoves()) {
-                final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    final int currentValue = minimax(moveTransition.getTransitionBoard(),
-                                      depth - 1, alpha, beta, false);
-                    highestSeenValue = Math.max(highestSeenValue, currentValue);
-
-                    // Pruning occurs
-                    alpha = Math.max(alpha, currentValue);
-                    if(beta <= alpha) {
-                        return currentValue;
-                    }
-                }
-            }
-            return highestSeenValue;
-        } else { // minimizing player
-            int lowestSeenValue = Integer.MAX_VALUE;
-            for(Move move : board.getCurrentPlayer().getLegalMoves()) {
-                final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if(moveTransition.getMoveStatus().isDone()) {
-                    final int currentValue = minimax(moveTransition.getTransitionBoard(),
-                                   depth - 1, alpha, beta, true);
-                    lowestSeenValue = Math.min(lowestSeenValue, currentValue);
-
-                    // Pruning occurs
-                    beta = Math.min(beta, currentValue);
-                    if(alpha <= beta) {
-                        return currentValue;
-                    }
-                }
+        // Each thread counted on its own, and the counts are only added up once every thread is done
+        final SearchStats stats = new SearchStats(mainSearcher.getStats());
+        for(int i = 0; i < helpers.length; i++) {
+            try {
+                helpers[i].join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-            return lowestSeenValue;
+            stats.add(this.searchers[i + 1].getStats());
         }
-    }
-////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+        this.lastSearchStats = stats;
+        SearchStatsMonitor.get().publish(stats);
 
-    private static boolean isEndGameScenario(Board board) {
-        return board.getCurrentPlayer().isInCheckmate() ||
-               board.getCurrentPlayer().isInStalemate();
+        final int bestMove = mainSearcher.getBestMove();
+        return bestMove == PackedMove.NO_MOVE ? null : PackedMove.toMove(board, bestMove);
     }
 }
@@ -0,0 +1,97 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+// MoveOrdering keeps what a search has learned about which moves tend to be good, so the MovePickers can try them
+// first in later nodes. Quiet moves that cause a cutoff are remembered three ways: as one of the two killer moves of
+// their ply, in the history table, which adds up how often each move from one tile to another has cut off, and as the
+// countermove of the move played just before them. Captures are ordered by their MVV-LVA score instead. Everything is
+// kept in primitive arrays indexed by ply or by tiles, and cleared at the start of each search.
+final class MoveOrdering {
+
+    // History scores are halved once one of them gets this big, so recent cutoffs count for more than old ones
+    private static final int MAX_HISTORY_SCORE = 1 << 20;
+
+    // The two most recent quiet moves that caused a cutoff at each ply, indexed [ply][slot]
+    private final int[][] killerMoves = new int[SearchBoard.MAX_PLY][2];
+    // Indexed [currentCoordinate * NUM_TILES + destinationCoordinate] of the move, as are the countermoves
+    private final int[] historyScores = new int[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+    // The quiet move that last refuted each move
+    private final int[] counterMoves = new int[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+
+    // Forgets everything, for the start of a new search
+    void clear() {
+        for (final int[] killers : this.killerMoves) {
+            Arrays.fill(killers, PackedMove.NO_MOVE);
+        }
+        Arrays.fill(this.historyScores, 0);
+        Arrays.fill(this.counterMoves, PackedMove.NO_MOVE);
+    }
+
+    int getFirstKiller(final int ply) {
+        return this.killerMoves[ply][0];
+    }
+
+    int getSecondKiller(final int ply) {
+        return this.killerMoves[ply][1];
+    }
+
+    // Returns the quiet move that last refuted the given move, or NO_MOVE
+    int getCounterMove(final int previousMove) {
+        return previousMove == PackedMove.NO_MOVE ? PackedMove.NO_MOVE : this.counterMoves[tileIndex(previousMove)];
+    }
+
+    int getHistoryScore(final int move) {
+        return this.historyScores[tileIndex(move)];
+    }
+
+    // Remembers a move that caused a cutoff in the board's current position, searched to the given depth. Only quiet
+    // moves are remembered, since captures are ordered well enough by what they capture.
+    void storeCutoff(final SearchBoard board, final int move, final int depth) {
+        if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+            return;
+        }
+        final int ply = board.getPly();
+        if (this.killerMoves[ply][0] != move) {
+            this.killerMoves[ply][1] = this.killerMoves[ply][0];
+            this.killerMoves[ply][0] = move;
+        }
+        final int previousMove = board.getLastMove();
+        if (previousMove != PackedMove.NO_MOVE) {
+            this.counterMoves[tileIndex(previousMove)] = move;
+        }
+        // Cutoffs deep in the tree prune more, so they count for more
+        final int index = tileIndex(move);
+        this.historyScores[index] += depth * depth;
+        if (this.historyScores[index] >= MAX_HISTORY_SCORE) {
+            for (int i = 0; i < this.historyScores.length; i++) {
+                this.historyScores[i] /= 2;
+            }
+        }
+    }
+
+    // Most valuable victim, least valuable attacker: captures of bigger pieces come first, and among captures of the
+    // same piece the ones made with the smaller piece. A promotion is scored as winning a queen.
+    static int mvvLva(final SearchBoard board, final int move) {
+        final int promotionValue = PackedMove.isPromotion(move) ? PieceType.QUEEN.getPieceValue() : 0;
+        return (capturedPieceValue(board, move) + promotionValue) * 16 -
+               board.getPieceType(PackedMove.getCurrentCoordinate(move)).ordinal();
+    }
+
+    // Returns the value of the piece the move captures, or 0 if it captures nothing
+    static int capturedPieceValue(final SearchBoard board, final int move) {
+        final PieceType victim = board.getPieceType(PackedMove.getDestinationCoordinate(move));
+        // En passant captures a pawn that is not on the destination, and a promoting push captures nothing
+        return victim != null ? victim.getPieceValue() :
+               PackedMove.isCapture(move) ? PieceType.PAWN.getPieceValue() : 0;
+    }
+
+    private static int tileIndex(final int move) {
+        return PackedMove.getCurrentCoordinate(move) * BoardUtils.NUM_TILES + PackedMove.getDestinationCoordinate(move);
+    }
+}
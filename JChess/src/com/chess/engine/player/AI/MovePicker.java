@@ -0,0 +1,186 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+// MovePicker hands out the legal moves of a SearchBoard position one at a time, in stages: the hash move first, then
+// the captures with the most valuable victim and least valuable attacker first, then the killer moves and the
+// countermove, then the other quiet moves, best history score first (see MoveOrdering), and last the captures that lose
+// material in their static exchange (see StaticExchange). A node that cuts off early never generates the quiet moves,
+// and a capture is only put through the static exchange once it comes up. The search keeps one picker per ply and
+// reuses it for every node at that ply, so its move lists are allocated once.
+final class MovePicker {
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int COUNTER_MOVE = 5;
+    private static final int GENERATE_QUIETS = 6;
+    private static final int QUIETS = 7;
+    private static final int BAD_CAPTURES = 8;
+    private static final int DONE = 9;
+
+    private final MoveList moves = new MoveList();
+    // The captures held back from the CAPTURES stage, in the order they came up
+    private final MoveList badCaptures = new MoveList();
+    private final int[] scores = new int[MoveList.MAX_MOVES];
+
+    private SearchBoard board;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int counterMove;
+    private MoveOrdering moveOrdering;
+    private boolean capturesOnly;
+    private int stage;
+    private int index;
+
+    // Prepares the picker for the board's current position, taking the killers, countermove and history scores from
+    // the given move ordering
+    void init(final SearchBoard board, final int hashMove, final MoveOrdering moveOrdering) {
+        final int ply = board.getPly();
+        this.board = board;
+        this.hashMove = hashMove;
+        this.moveOrdering = moveOrdering;
+        this.firstKiller = moveOrdering.getFirstKiller(ply);
+        this.secondKiller = moveOrdering.getSecondKiller(ply);
+        this.counterMove = moveOrdering.getCounterMove(board.getLastMove());
+        this.capturesOnly = false;
+        this.stage = HASH_MOVE;
+        this.moves.clear();
+        this.badCaptures.clear();
+        this.index = 0;
+    }
+
+    // Prepares the picker to hand out only the captures and promotions of the board's current position, ordered by
+    // MVV-LVA alone. The quiescence search prunes the losing captures itself.
+    void initCaptures(final SearchBoard board) {
+        this.board = board;
+        this.hashMove = PackedMove.NO_MOVE;
+        this.firstKiller = PackedMove.NO_MOVE;
+        this.secondKiller = PackedMove.NO_MOVE;
+        this.counterMove = PackedMove.NO_MOVE;
+        this.capturesOnly = true;
+        this.stage = GENERATE_CAPTURES;
+        this.moves.clear();
+        this.badCaptures.clear();
+        this.index = 0;
+    }
+
+    // Returns the next legal move, or NO_MOVE once every move has been handed out. Each move is returned once.
+    int nextMove() {
+        while (true) {
+            switch (this.stage) {
+                case HASH_MOVE:
+                    this.stage = GENERATE_CAPTURES;
+                    if (this.board.isLegal(this.hashMove)) {
+                        return this.hashMove;
+                    }
+                    break;
+                case GENERATE_CAPTURES:
+                    this.board.generateCaptures(this.moves);
+                    this.index = 0;
+                    scoreCaptures();
+                    this.stage = CAPTURES;
+                    break;
+                case CAPTURES:
+                    while (this.index < this.moves.size()) {
+                        final int move = pickBestMove();
+                        if (move == this.hashMove) {
+                            continue;
+                        }
+                        if (this.capturesOnly || StaticExchange.isNotLosing(this.board, move)) {
+                            return move;
+                        }
+                        this.badCaptures.add(move);
+                    }
+                    this.stage = this.capturesOnly ? DONE : FIRST_KILLER;
+                    break;
+                case FIRST_KILLER:
+                    this.stage = SECOND_KILLER;
+                    if (isPlayableKiller(this.firstKiller)) {
+                        return this.firstKiller;
+                    }
+                    break;
+                case SECOND_KILLER:
+                    this.stage = COUNTER_MOVE;
+                    if (this.secondKiller != this.firstKiller && isPlayableKiller(this.secondKiller)) {
+                        return this.secondKiller;
+                    }
+                    break;
+                case COUNTER_MOVE:
+                    this.stage = GENERATE_QUIETS;
+                    if (this.counterMove != this.firstKiller && this.counterMove != this.secondKiller &&
+                        isPlayableKiller(this.counterMove)) {
+                        return this.counterMove;
+                    }
+                    break;
+                case GENERATE_QUIETS:
+                    this.board.generateQuiets(this.moves);
+                    this.index = 0;
+                    scoreQuiets();
+                    this.stage = QUIETS;
+                    break;
+                case QUIETS:
+                    while (this.index < this.moves.size()) {
+                        final int move = pickBestMove();
+                        if (move != this.hashMove && move != this.firstKiller && move != this.secondKiller &&
+                            move != this.counterMove) {
+                            return move;
+                        }
+                    }
+                    this.index = 0;
+                    this.stage = BAD_CAPTURES;
+                    break;
+                case BAD_CAPTURES:
+                    if (this.index < this.badCaptures.size()) {
+                        return this.badCaptures.get(this.index++);
+                    }
+                    this.stage = DONE;
+                    break;
+                default:
+                    return PackedMove.NO_MOVE;
+            }
+        }
+    }
+
+    // Killers and countermoves are quiet moves that caused a cutoff in another node, so they may not be legal here
+    private boolean isPlayableKiller(final int killer) {
+        return killer != PackedMove.NO_MOVE && killer != this.hashMove && !PackedMove.isCapture(killer) &&
+               !PackedMove.isPromotion(killer) && this.board.isLegal(killer);
+    }
+
+    private void scoreCaptures() {
+        for (int i = 0; i < this.moves.size(); i++) {
+            this.scores[i] = MoveOrdering.mvvLva(this.board, this.moves.get(i));
+        }
+    }
+
+    private void scoreQuiets() {
+        for (int i = 0; i < this.moves.size(); i++) {
+            this.scores[i] = this.moveOrdering.getHistoryScore(this.moves.get(i));
+        }
+    }
+
+    // Swaps the best scored move left into the next place and returns it. A full sort would be wasted on nodes that
+    // cut off after the first move or two.
+    private int pickBestMove() {
+        int best = this.index;
+        for (int i = this.index + 1; i < this.moves.size(); i++) {
+            if (this.scores[i] > this.scores[best]) {
+                best = i;
+            }
+        }
+        final int move = this.moves.get(best);
+        final int score = this.scores[best];
+        this.moves.set(best, this.moves.get(this.index));
+        this.scores[best] = this.scores[this.index];
+        this.moves.set(this.index, move);
+        this.scores[this.index] = score;
+        this.index++;
+        return move;
+    }
+}
@@ -3,6 +3,11 @@ package com.chess.engine.player.AI;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 
+// A MoveStrategy picks the move to play in a position
 public interface MoveStrategy {
     Move execute(Board board);
+
+    // Picks a move like execute(Board), but stops early once the token is cancelled or its deadline passes, and
+    // reports its progress to the listener as it goes
+    Move execute(Board board, CancellationToken cancellationToken, SearchListener listener);
 }
@@ -16,13 +16,14 @@ public class Rando implements MoveStrategy {
 
     @Override
     public Move execute(Board board) {
+        // Every legal move can be played, so any of them is a valid pick
         List<Move> legals = (List) board.getCurrentPlayer().getLegalMoves();
-        int selection = r.nextInt(legals.size());
-        // TODO: This solution keeps the legal move size very large
-        // Might not be convenient for higher complexity AI
-        while(!board.getCurrentPlayer().makeMove(legals.get(selection)).getMoveStatus().isDone()) {
-            selection = r.nextInt(legals.size());
-        }
-        return legals.get(selection);
+        return legals.get(r.nextInt(legals.size()));
+    }
+
+    // Picking a random move takes no time, so there is nothing to cancel or report
+    @Override
+    public Move execute(Board board, CancellationToken cancellationToken, SearchListener listener) {
+        return execute(board);
     }
 }
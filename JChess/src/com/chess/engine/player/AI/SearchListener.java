@@ -0,0 +1,8 @@
+package com.chess.engine.player.AI;
+
+// SearchListener is told how a search is getting on. Searches call it on their own thread, so a listener that updates
+// a GUI has to hand the progress over to the GUI's thread itself.
+public interface SearchListener {
+    // Called each time the search finishes a depth
+    void searchProgressed(SearchProgress progress);
+}
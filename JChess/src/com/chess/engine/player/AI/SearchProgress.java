@@ -0,0 +1,62 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.board.PackedMove;
+
+// SearchProgress is what a search has found once it has finished a depth: the score of the position for the player
+// to move, the number of nodes searched so far and the principal variation, the line of play the search expects,
+// starting with the move it would play.
+public final class SearchProgress {
+
+    private final int depth;
+    private final int score;
+    private final long nodes;
+    private final long elapsedMillis;
+    // Packed moves
+    private final int[] principalVariation;
+
+    public SearchProgress(final int depth, final int score, final long nodes, final long elapsedMillis,
+                          final int[] principalVariation) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.principalVariation = principalVariation.clone();
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    // Returns the packed moves of the principal variation, which may be shorter than the depth, or empty
+    public int[] getPrincipalVariation() {
+        return this.principalVariation.clone();
+    }
+
+    // Returns the packed move the search would play, or NO_MOVE if it has none
+    public int getBestMove() {
+        return this.principalVariation.length == 0 ? PackedMove.NO_MOVE : this.principalVariation[0];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Depth ").append(this.depth).append(": score ").append(this.score).append(" after ")
+               .append(this.nodes).append(" nodes in ").append(this.elapsedMillis).append("ms, pv");
+        for (final int move : this.principalVariation) {
+            builder.append(' ').append(PackedMove.toString(move));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,174 @@
+package com.chess.engine.player.AI;
+
+import java.util.Arrays;
+
+import static com.chess.engine.player.AI.Minimax.MAX_DEPTH;
+
+// SearchStats counts what a search did, so that a change to the search can be measured rather than guessed at: nodes,
+// quiescence nodes, beta cutoffs and how many of them came from the first move searched, transposition table probes
+// and hits, and the time and nodes of each iteration. Every search thread counts into a SearchStats of its own, in
+// plain fields, so counting costs no more than an increment, and the threads' counts are added together once the
+// search is over. The iterations are those of the thread that recorded them, which for a Minimax is the main thread.
+public final class SearchStats {
+
+    private long nodes;
+    private long quiescenceNodes;
+    private long betaCutoffs;
+    private long firstMoveBetaCutoffs;
+    private long tableProbes;
+    private long tableHits;
+    private long elapsedMillis;
+    private int completedDepth;
+    // Indexed by depth, the nodes searched and the time taken by the time each iteration finished
+    private final long[] iterationNodes = new long[MAX_DEPTH + 1];
+    private final long[] iterationMillis = new long[MAX_DEPTH + 1];
+
+    public SearchStats() {
+    }
+
+    // Constructs a copy of the given stats
+    public SearchStats(final SearchStats stats) {
+        this.nodes = stats.nodes;
+        this.quiescenceNodes = stats.quiescenceNodes;
+        this.betaCutoffs = stats.betaCutoffs;
+        this.firstMoveBetaCutoffs = stats.firstMoveBetaCutoffs;
+        this.tableProbes = stats.tableProbes;
+        this.tableHits = stats.tableHits;
+        this.elapsedMillis = stats.elapsedMillis;
+        this.completedDepth = stats.completedDepth;
+        System.arraycopy(stats.iterationNodes, 0, this.iterationNodes, 0, this.iterationNodes.length);
+        System.arraycopy(stats.iterationMillis, 0, this.iterationMillis, 0, this.iterationMillis.length);
+    }
+
+    // Forgets everything, for the start of a new search
+    void clear() {
+        this.nodes = 0;
+        this.quiescenceNodes = 0;
+        this.betaCutoffs = 0;
+        this.firstMoveBetaCutoffs = 0;
+        this.tableProbes = 0;
+        this.tableHits = 0;
+        this.elapsedMillis = 0;
+        this.completedDepth = 0;
+        Arrays.fill(this.iterationNodes, 0);
+        Arrays.fill(this.iterationMillis, 0);
+    }
+
+    // Counts a node of the main search or of the quiescence search
+    void countNode() {
+        this.nodes++;
+    }
+
+    // Counts a node that countNode has already counted as a quiescence node as well
+    void countQuiescenceNode() {
+        this.quiescenceNodes++;
+    }
+
+    void countBetaCutoff(final boolean isFirstMove) {
+        this.betaCutoffs++;
+        if (isFirstMove) {
+            this.firstMoveBetaCutoffs++;
+        }
+    }
+
+    void countTableProbe(final boolean isHit) {
+        this.tableProbes++;
+        if (isHit) {
+            this.tableHits++;
+        }
+    }
+
+    // Records that the search to the given depth has finished, after the given time
+    void recordIteration(final int depth, final long elapsedMillis) {
+        this.iterationNodes[depth] = this.nodes;
+        this.iterationMillis[depth] = elapsedMillis;
+        this.completedDepth = depth;
+    }
+
+    void setElapsedMillis(final long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Adds the other stats' counts to these, leaving these stats' iterations and time as they are
+    void add(final SearchStats stats) {
+        this.nodes += stats.nodes;
+        this.quiescenceNodes += stats.quiescenceNodes;
+        this.betaCutoffs += stats.betaCutoffs;
+        this.firstMoveBetaCutoffs += stats.firstMoveBetaCutoffs;
+        this.tableProbes += stats.tableProbes;
+        this.tableHits += stats.tableHits;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getQuiescenceNodes() {
+        return this.quiescenceNodes;
+    }
+
+    public long getBetaCutoffs() {
+        return this.betaCutoffs;
+    }
+
+    public long getFirstMoveBetaCutoffs() {
+        return this.firstMoveBetaCutoffs;
+    }
+
+    // Returns the percentage of beta cutoffs made by the first move searched, which is high when moves are well ordered
+    public double getFirstMoveCutoffPercent() {
+        return this.betaCutoffs == 0 ? 0 : 100.0 * this.firstMoveBetaCutoffs / this.betaCutoffs;
+    }
+
+    public long getTableProbes() {
+        return this.tableProbes;
+    }
+
+    public long getTableHits() {
+        return this.tableHits;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return this.nodes * 1000 / Math.max(1, this.elapsedMillis);
+    }
+
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    // Returns the nodes searched by the iteration to the given depth alone, or 0 if it did not finish
+    public long getIterationNodes(final int depth) {
+        if (depth < 1 || depth > this.completedDepth) {
+            return 0;
+        }
+        return this.iterationNodes[depth] - (depth > 1 ? this.iterationNodes[depth - 1] : 0);
+    }
+
+    // Returns the time taken by the iteration to the given depth alone, or 0 if it did not finish
+    public long getIterationMillis(final int depth) {
+        if (depth < 1 || depth > this.completedDepth) {
+            return 0;
+        }
+        return this.iterationMillis[depth] - (depth > 1 ? this.iterationMillis[depth - 1] : 0);
+    }
+
+    // Returns how many times more nodes the deepest iteration searched than the one before it, or 0 if fewer than two
+    // iterations finished. It is the number of moves per node the search effectively looks at.
+    public double getEffectiveBranchingFactor() {
+        final long previousNodes = getIterationNodes(this.completedDepth - 1);
+        return previousNodes == 0 ? 0 : (double) getIterationNodes(this.completedDepth) / previousNodes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, %d nodes (%d quiescence) in %dms, %d nps, %.1f%% first-move cutoffs, " +
+                             "branching factor %.2f, %d table probes, %d hits", this.completedDepth, this.nodes,
+                             this.quiescenceNodes, this.elapsedMillis, getNodesPerSecond(),
+                             getFirstMoveCutoffPercent(), getEffectiveBranchingFactor(), this.tableProbes,
+                             this.tableHits);
+    }
+}
@@ -0,0 +1,30 @@
+package com.chess.engine.player.AI;
+
+// The stats of the last finished search, and running totals over every search, as seen through JMX. See SearchStats
+// for what each number means.
+public interface SearchStatsMXBean {
+    long getSearches();
+
+    long getTotalNodes();
+
+    int getCompletedDepth();
+
+    long getNodes();
+
+    long getQuiescenceNodes();
+
+    long getElapsedMillis();
+
+    long getNodesPerSecond();
+
+    double getFirstMoveCutoffPercent();
+
+    double getEffectiveBranchingFactor();
+
+    long getTableProbes();
+
+    long getTableHits();
+
+    // The time taken by each iteration of the last search, the first iteration first
+    long[] getIterationMillis();
+}
@@ -0,0 +1,112 @@
+package com.chess.engine.player.AI;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+// SearchStatsMonitor publishes the stats of every finished search through JMX, under the name in OBJECT_NAME, so they
+// can be watched from jconsole or any other JMX client while the engine is playing. It is registered with the
+// platform MBean server the first time a search publishes its stats.
+public final class SearchStatsMonitor implements SearchStatsMXBean {
+
+    public static final String OBJECT_NAME = "com.chess.engine:type=SearchStats";
+
+    private static final SearchStatsMonitor INSTANCE = register(new SearchStatsMonitor());
+
+    private volatile SearchStats lastSearchStats = new SearchStats();
+    private long searches;
+    private long totalNodes;
+
+    private SearchStatsMonitor() {
+    }
+
+    private static SearchStatsMonitor register(final SearchStatsMonitor monitor) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, new ObjectName(OBJECT_NAME));
+        } catch (final JMException e) {
+            e.printStackTrace();
+        }
+        return monitor;
+    }
+
+    // Returns the only instance of SearchStatsMonitor
+    public static SearchStatsMonitor get() {
+        return INSTANCE;
+    }
+
+    // Makes the stats of a finished search the last search's. The stats must not change afterwards.
+    public synchronized void publish(final SearchStats stats) {
+        this.lastSearchStats = stats;
+        this.searches++;
+        this.totalNodes += stats.getNodes();
+    }
+
+    public SearchStats getLastSearchStats() {
+        return this.lastSearchStats;
+    }
+
+    @Override
+    public synchronized long getSearches() {
+        return this.searches;
+    }
+
+    @Override
+    public synchronized long getTotalNodes() {
+        return this.totalNodes;
+    }
+
+    @Override
+    public int getCompletedDepth() {
+        return this.lastSearchStats.getCompletedDepth();
+    }
+
+    @Override
+    public long getNodes() {
+        return this.lastSearchStats.getNodes();
+    }
+
+    @Override
+    public long getQuiescenceNodes() {
+        return this.lastSearchStats.getQuiescenceNodes();
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return this.lastSearchStats.getElapsedMillis();
+    }
+
+    @Override
+    public long getNodesPerSecond() {
+        return this.lastSearchStats.getNodesPerSecond();
+    }
+
+    @Override
+    public double getFirstMoveCutoffPercent() {
+        return this.lastSearchStats.getFirstMoveCutoffPercent();
+    }
+
+    @Override
+    public double getEffectiveBranchingFactor() {
+        return this.lastSearchStats.getEffectiveBranchingFactor();
+    }
+
+    @Override
+    public long getTableProbes() {
+        return this.lastSearchStats.getTableProbes();
+    }
+
+    @Override
+    public long getTableHits() {
+        return this.lastSearchStats.getTableHits();
+    }
+
+    @Override
+    public long[] getIterationMillis() {
+        final SearchStats stats = this.lastSearchStats;
+        final long[] iterationMillis = new long[stats.getCompletedDepth()];
+        for (int depth = 1; depth <= iterationMillis.length; depth++) {
+            iterationMillis[depth - 1] = stats.getIterationMillis(depth);
+        }
+        return iterationMillis;
+    }
+}
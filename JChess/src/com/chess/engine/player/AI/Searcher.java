@@ -0,0 +1,549 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import static com.chess.engine.player.AI.Minimax.MATE;
+import static com.chess.engine.player.AI.Minimax.MATE_BOUND;
+import static com.chess.engine.player.AI.Minimax.MAX_DEPTH;
+import static com.chess.engine.player.AI.TranspositionTable.*;
+
+// Searcher is the search run by one thread of a Minimax. It has its own board, move pickers and move ordering, and
+// shares only the transposition table with the Minimax's other Searchers, so threads never wait on one another. See
+// Minimax for how the search works.
+final class Searcher {
+
+    private static final int INFINITY = MATE + 1;
+    private static final int DRAW = 0;
+
+    // How many nodes are searched between checks of the clock
+    private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+    // A capture is not searched by the quiescence search when even winning the captured piece and this much more
+    // would not bring the score back into the window
+    private static final int DELTA_MARGIN = 200;
+    // Null-move pruning is tried from this depth on, and searches the null move this many plies less deep, or
+    // DEEP_NULL_MOVE_REDUCTION plies less from DEEP_NULL_MOVE_DEPTH on
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int DEEP_NULL_MOVE_DEPTH = 7;
+    private static final int DEEP_NULL_MOVE_REDUCTION = 3;
+    // From this depth on, a null-move cutoff is only trusted once a reduced search without null moves confirms it
+    private static final int NULL_MOVE_VERIFICATION_DEPTH = 8;
+    // Up to this depth a node whose static evaluation beats beta by REVERSE_FUTILITY_MARGIN per ply is cut off
+    private static final int REVERSE_FUTILITY_MAX_DEPTH = 3;
+    private static final int REVERSE_FUTILITY_MARGIN = 120;
+    // Quiet moves are not searched at depth d when the static evaluation plus FUTILITY_MARGINS[d] cannot reach alpha
+    private static final int[] FUTILITY_MARGINS = {0, 200, 450};
+    // Late quiet moves are searched less deep from this depth, and from this many moves into the node
+    private static final int LATE_MOVE_REDUCTION_MIN_DEPTH = 3;
+    private static final int LATE_MOVE_REDUCTION_MIN_MOVES = 3;
+    // How many plies to reduce the search of a late move, indexed [depth][number of moves searched before it]
+    private static final int[][] LATE_MOVE_REDUCTIONS = initLateMoveReductions();
+    // The table's move is tested for a singular extension from this depth on, when the table's entry was searched at
+    // most SINGULAR_DEPTH_MARGIN plies less deep. It is singular when every other move scores SINGULAR_MARGIN per ply
+    // of depth below the table's score.
+    private static final int SINGULAR_MIN_DEPTH = 6;
+    private static final int SINGULAR_DEPTH_MARGIN = 3;
+    private static final int SINGULAR_MARGIN = 8;
+
+    private final BoardEvaluator boardEvaluator;
+    // Positions already searched, shared with the other Searchers
+    private final TranspositionTable transpositionTable;
+    // One move picker per ply, created the first time the search reaches that ply
+    private final MovePicker[] movePickers = new MovePicker[SearchBoard.MAX_PLY];
+    // Killers, history and countermoves, learned afresh by every search
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    // The move each ply leaves out while testing whether the table's move is singular, or NO_MOVE
+    private final int[] excludedMoves = new int[SearchBoard.MAX_PLY];
+
+    private SearchBoard board;
+    private long startTime;
+    private long timeBudgetMillis;
+    private long nodeBudget;
+    // Polled along with the clock, so another thread can stop the search
+    private CancellationToken cancellationToken;
+    // Nodes, cutoffs and table probes of this thread alone
+    private final SearchStats stats = new SearchStats();
+    private int rootDepth;
+    // Above zero while a null-move cutoff is being verified, which turns null moves off below it
+    private int nullMoveVerifications;
+    // Set once the budget runs out or another thread stops the search, after which the search unwinds without
+    // trusting the values it returns
+    private volatile boolean stopped;
+    // The best move of the deepest search finished, its score and that search's depth
+    private int bestMove;
+    private int bestScore;
+    private int completedDepth;
+
+    // Reductions grow with the logarithms of both the depth and how late the move comes, so moves that good ordering
+    // put last are barely looked at in deep searches
+    private static int[][] initLateMoveReductions() {
+        final int[][] reductions = new int[MAX_DEPTH + 1][MoveList.MAX_MOVES];
+        for(int depth = 1; depth <= MAX_DEPTH; depth++) {
+            for(int moveNumber = 1; moveNumber < MoveList.MAX_MOVES; moveNumber++) {
+                reductions[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+        return reductions;
+    }
+
+    Searcher(final BoardEvaluator boardEvaluator, final TranspositionTable transpositionTable) {
+        this.boardEvaluator = boardEvaluator;
+        this.transpositionTable = transpositionTable;
+    }
+
+    // Prepares a search of the board's position, within the given budget counted from startTime, that also stops
+    // once the token is cancelled. Boards work out their players on first use, so this is called on the thread that
+    // owns the board, not on the search thread.
+    void init(final Board board, final long startTime, final long timeBudgetMillis, final long nodeBudget,
+              final CancellationToken cancellationToken) {
+        // The search works on a single mutable copy of the board, making and unmaking moves in place
+        this.board = new SearchBoard(board);
+        this.startTime = startTime;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.nodeBudget = nodeBudget;
+        this.cancellationToken = cancellationToken;
+        this.stats.clear();
+        this.nullMoveVerifications = 0;
+        this.stopped = false;
+        this.bestMove = PackedMove.NO_MOVE;
+        this.completedDepth = 0;
+        this.moveOrdering.clear();
+    }
+
+    // Searches to depth firstDepth, then one ply deeper each time, up to maxDepth or until the search is stopped. The
+    // main Searcher is the one given a listener: it reports each search it finishes to the listener, and does not
+    // start one it cannot finish in its time.
+    void iterate(final int firstDepth, final int maxDepth, final SearchListener listener) {
+        for (int depth = firstDepth; depth <= maxDepth; depth++) {
+            final int move = searchRoot(depth, this.bestMove);
+            // An unfinished search may not have looked at the best move yet, so its choice is thrown away
+            if(this.stopped || move == PackedMove.NO_MOVE) {
+                break;
+            }
+            this.bestMove = move;
+            this.completedDepth = depth;
+            this.stats.recordIteration(depth, elapsedMillis());
+            if(listener != null) {
+                listener.searchProgressed(new SearchProgress(depth, this.bestScore, getNodes(), elapsedMillis(),
+                                                             principalVariation(depth)));
+                // The next search takes several times as long as this one, so it is not started when it cannot
+                // finish. The token's deadline may have been set since the search started, so it is read again.
+                final long elapsedMillis = elapsedMillis();
+                if(elapsedMillis > this.timeBudgetMillis / 2 ||
+                   elapsedMillis > this.cancellationToken.getMillisLeft(this.startTime + elapsedMillis)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // Searches the position to the given depth within the window and returns its score, which is worthless if the
+    // search was stopped. Like iterate, it deepens one ply at a time, so each search is ordered by the best moves the
+    // shallower one left in the transposition table.
+    int searchWindow(final int depth, final int alpha, final int beta) {
+        // The position is below the root of the whole search, so it is a draw if it repeats, like any other
+        if(this.board.isRepetition() || this.board.isFiftyMoveDraw()) {
+            return DRAW;
+        }
+        int score = 0;
+        for (int d = Math.min(depth, 1); d <= depth && !this.stopped; d++) {
+            this.rootDepth = d;
+            score = search(this.board, d, d, alpha, beta);
+        }
+        return score;
+    }
+
+    // Stops the search from any thread
+    void stop() {
+        this.stopped = true;
+    }
+
+    int getBestMove() {
+        return this.bestMove;
+    }
+
+    int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    long getNodes() {
+        return this.stats.getNodes();
+    }
+
+    // Returns the stats of the search so far, which keep changing while it runs
+    SearchStats getStats() {
+        this.stats.setElapsedMillis(elapsedMillis());
+        return this.stats;
+    }
+
+    boolean isStopped() {
+        return this.stopped;
+    }
+
+    TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    // Searches every move of the root position to the given depth, starting with the previous search's best move,
+    // and returns the best one, or NO_MOVE if there are no moves. Every line may be extended by up to depth plies.
+    private int searchRoot(final int depth, final int previousBestMove) {
+        final SearchBoard searchBoard = this.board;
+        int bestMove = PackedMove.NO_MOVE;
+        int alpha = -INFINITY;
+        final int beta = INFINITY;
+
+        this.rootDepth = depth;
+        final MovePicker movePicker = getMovePicker(0);
+        movePicker.init(searchBoard, previousBestMove, this.moveOrdering);
+        for (int move = movePicker.nextMove(); move != PackedMove.NO_MOVE; move = movePicker.nextMove()) {
+            searchBoard.makeMove(move);
+            int currValue;
+            if(bestMove == PackedMove.NO_MOVE) {
+                currValue = -search(searchBoard, depth - 1, depth, -beta, -alpha);
+            } else {
+                currValue = -search(searchBoard, depth - 1, depth, -alpha - 1, -alpha);
+                if(currValue > alpha && !this.stopped) {
+                    currValue = -search(searchBoard, depth - 1, depth, -beta, -alpha);
+                }
+            }
+            searchBoard.unmakeMove();
+            if(this.stopped) {
+                return PackedMove.NO_MOVE;
+            }
+            if(currValue > alpha) {
+                alpha = currValue;
+                bestMove = move;
+            }
+        }
+        if(bestMove != PackedMove.NO_MOVE) {
+            this.bestScore = alpha;
+            this.transpositionTable.store(searchBoard.zobristKey(), bestMove, alpha, depth, EXACT);
+        }
+        return bestMove;
+    }
+
+    // Follows the best moves the transposition table holds from the root, for at most maxLength moves, which gives
+    // the principal variation of the last search for as long as the table still holds it
+    private int[] principalVariation(final int maxLength) {
+        final SearchBoard searchBoard = this.board;
+        final MoveList line = new MoveList();
+        int move = this.bestMove;
+        while(line.size() < maxLength && searchBoard.isLegal(move)) {
+            line.add(move);
+            searchBoard.makeMove(move);
+            move = getMove(this.transpositionTable.probe(searchBoard.zobristKey()));
+        }
+        for (int i = 0; i < line.size(); i++) {
+            searchBoard.unmakeMove();
+        }
+        return line.toArray();
+    }
+
+    private long elapsedMillis() {
+        return System.currentTimeMillis() - this.startTime;
+    }
+
+    // Counts a node and stops the search once it is over budget or cancelled. The first search always finishes, so
+    // there is always a move to play.
+    private boolean isOutOfBudget() {
+        this.stats.countNode();
+        final long nodes = this.stats.getNodes();
+        if(!this.stopped && this.rootDepth > 1 &&
+           (nodes >= this.nodeBudget ||
+            (nodes % NODES_BETWEEN_TIME_CHECKS == 0 &&
+             (elapsedMillis() >= this.timeBudgetMillis || this.cancellationToken.shouldStop())))) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+/////////////////// WHERE THE ACTUAL MINIMAX ALGORITHM DOES ITS WORK ///////////////////////////////////////////////////
+////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // This method generates a tree of positions and propagates the values at the bottom of the tree back to
+    // the top in such a way that satisfies the minimax decision algorithm, written as a negamax principal variation
+    // search (PVS). The first move of a node is searched with the full window. Every later move is only expected to
+    // be worse, which a zero-width window around alpha proves far more cheaply, and the move is searched again with
+    // the full window only if it turns out to be better. Moves are made on the board and taken back once their
+    // subtree has been searched, so the board is unchanged when this returns.
+    // Moves come from the ply's MovePicker, so a node that prunes early never generates its quiet moves.
+    // Every searched node is stored in the transposition table, and a node the table already holds to enough depth
+    // is not searched again. The table's best move for a node is tried first.
+    // Forcing moves are searched one ply deeper than the rest (see extension), so a mate or a won piece just past the
+    // nominal depth is still seen. Each line carries an extension budget alongside its depth, the number of plies it
+    // can still be extended by, so a long run of checks cannot blow up the tree.
+    private int search(final SearchBoard board, final int depth, final int extensionBudget, int alpha,
+                       final int beta) {
+        // A line that repeats a position, or that runs into the fifty-move rule, is a draw and is not searched any
+        // further. Being able to force a repetition is as good as a draw, so one repetition is enough.
+        if(board.getPly() > 0 && (board.isRepetition() || board.isFiftyMoveDraw())) {
+            return DRAW;
+        }
+        if(depth <= 0) {
+            return quiescence(board, alpha, beta);
+        }
+        if(isOutOfBudget()) {
+            return 0;
+        }
+        final int ply = board.getPly();
+        final boolean isPvNode = beta - alpha > 1;
+        // The table's entry is for the node with all its moves, so it says nothing about a search leaving one out
+        final int excludedMove = this.excludedMoves[ply];
+        final long key = board.zobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        this.stats.countTableProbe(entry != NO_ENTRY);
+        // Nodes on the principal variation are always searched, so the line the search reports stays whole
+        if(entry != NO_ENTRY && !isPvNode && excludedMove == PackedMove.NO_MOVE && getDepth(entry) >= depth) {
+            final int score = scoreFromTable(getScore(entry), ply);
+            final int bound = getBound(entry);
+            if(bound == EXACT || (bound == LOWER_BOUND && score >= beta) || (bound == UPPER_BOUND && score <= alpha)) {
+                return score;
+            }
+        }
+        final boolean isInCheck = board.isInCheck();
+        // The pruning below is only done away from the principal variation, and never in check
+        final int staticEval = isPvNode || isInCheck ? -INFINITY : evaluate(board);
+        // Reverse futility pruning: close to the leaves, a position this far above beta is not going to drop below it
+        if(!isPvNode && !isInCheck && depth <= REVERSE_FUTILITY_MAX_DEPTH && Math.abs(beta) < MATE_BOUND &&
+           staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+            return staticEval;
+        }
+        if(!isPvNode && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta && excludedMove == PackedMove.NO_MOVE &&
+           canMakeNullMove(board)) {
+            final int nullMoveScore = searchNullMove(board, depth, extensionBudget, beta);
+            if(this.stopped) {
+                return 0;
+            }
+            if(nullMoveScore >= beta) {
+                return nullMoveScore;
+            }
+        }
+        // Futility pruning: close to the leaves, a quiet move is not going to lift a position this far below alpha
+        final boolean isFutile = !isPvNode && !isInCheck && depth < FUTILITY_MARGINS.length &&
+                                 Math.abs(alpha) < MATE_BOUND && staticEval + FUTILITY_MARGINS[depth] <= alpha;
+
+        final int singularMove = extensionBudget > 0 && excludedMove == PackedMove.NO_MOVE ?
+                                 findSingularMove(board, entry, depth, extensionBudget) : PackedMove.NO_MOVE;
+        if(this.stopped) {
+            return 0;
+        }
+
+        final int originalAlpha = alpha;
+        final int previousMove = board.getLastMove();
+        final MovePicker movePicker = getMovePicker(ply);
+        movePicker.init(board, getMove(entry), this.moveOrdering);
+        int bestMove = PackedMove.NO_MOVE;
+        int bestValue = -INFINITY;
+        int movesSearched = 0;
+        for(int move = movePicker.nextMove(); move != PackedMove.NO_MOVE; move = movePicker.nextMove()) {
+            if(move == excludedMove) {
+                continue;
+            }
+            final boolean isQuiet = !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+            board.makeMove(move);
+            final boolean givesCheck = board.isInCheck();
+            if(isFutile && isQuiet && !givesCheck && movesSearched > 0) {
+                board.unmakeMove();
+                continue;
+            }
+            final int extension = extensionBudget == 0 ? 0 :
+                                  extension(move, previousMove, givesCheck, isPvNode, singularMove);
+            final int newDepth = depth - 1 + extension;
+            final int newExtensionBudget = extensionBudget - extension;
+            int currentValue;
+            if(movesSearched == 0) {
+                currentValue = -search(board, newDepth, newExtensionBudget, -beta, -alpha);
+            } else {
+                // Late move reductions: with good move ordering, late quiet moves are rarely best, so they are first
+                // searched less deep, and searched again at full depth only if they beat alpha
+                int reduction = 0;
+                if(depth >= LATE_MOVE_REDUCTION_MIN_DEPTH && movesSearched >= LATE_MOVE_REDUCTION_MIN_MOVES &&
+                   isQuiet && !isInCheck && !givesCheck) {
+                    reduction = LATE_MOVE_REDUCTIONS[Math.min(depth, MAX_DEPTH)][movesSearched] - (isPvNode ? 1 : 0);
+                    reduction = Math.max(0, Math.min(reduction, depth - 2));
+                }
+                currentValue = -search(board, newDepth - reduction, newExtensionBudget, -alpha - 1, -alpha);
+                if(currentValue > alpha && reduction > 0) {
+                    currentValue = -search(board, newDepth, newExtensionBudget, -alpha - 1, -alpha);
+                }
+                if(currentValue > alpha && currentValue < beta) {
+                    currentValue = -search(board, newDepth, newExtensionBudget, -beta, -alpha);
+                }
+            }
+            board.unmakeMove();
+            if(this.stopped) {
+                return 0;
+            }
+            movesSearched++;
+            if(currentValue > bestValue) {
+                bestValue = currentValue;
+                bestMove = move;
+                if(currentValue > alpha) {
+                    alpha = currentValue;
+                    // Pruning occurs
+                    if(alpha >= beta) {
+                        this.stats.countBetaCutoff(movesSearched == 1);
+                        this.moveOrdering.storeCutoff(board, move, depth);
+                        break;
+                    }
+                }
+            }
+        }
+        if(excludedMove != PackedMove.NO_MOVE) {
+            // Leaving out a move proves nothing about the node, so nothing is stored, and a node whose only move was
+            // left out fails low rather than being mate
+            return movesSearched == 0 ? alpha : bestValue;
+        }
+        if(movesSearched == 0) { // Checkmate or stalemate
+            return isInCheck ? -MATE + ply : DRAW;
+        }
+        // A value outside the window is only a bound on the true value, since the search stopped early
+        final int bound = bestValue >= beta ? LOWER_BOUND : bestValue <= originalAlpha ? UPPER_BOUND : EXACT;
+        this.transpositionTable.store(key, bestMove, scoreToTable(bestValue, ply), depth, bound);
+        return bestValue;
+    }
+
+    // Returns how many plies deeper than the others to search a move just made: one for a move that gives check, for a
+    // recapture on the principal variation and for the singular move, and none for any other
+    private static int extension(final int move, final int previousMove, final boolean givesCheck,
+                                 final boolean isPvNode, final int singularMove) {
+        final boolean isRecapture = PackedMove.isCapture(move) && PackedMove.isCapture(previousMove) &&
+                                    PackedMove.getDestinationCoordinate(move) ==
+                                    PackedMove.getDestinationCoordinate(previousMove);
+        return givesCheck || (isPvNode && isRecapture) || move == singularMove ? 1 : 0;
+    }
+
+    // Singular extensions: a move the table says is good is singular when a reduced search of every other move, with
+    // a window a margin below the table's score, fails low, so the node stands or falls with that one move. Such a
+    // move is worth searching deeper. Returns the singular move, or NO_MOVE if there is none.
+    private int findSingularMove(final SearchBoard board, final long entry, final int depth,
+                                 final int extensionBudget) {
+        if(depth < SINGULAR_MIN_DEPTH || entry == NO_ENTRY || getMove(entry) == PackedMove.NO_MOVE ||
+           getBound(entry) == UPPER_BOUND || getDepth(entry) < depth - SINGULAR_DEPTH_MARGIN) {
+            return PackedMove.NO_MOVE;
+        }
+        final int tableScore = scoreFromTable(getScore(entry), board.getPly());
+        if(Math.abs(tableScore) >= MATE_BOUND) {
+            return PackedMove.NO_MOVE;
+        }
+        final int singularBeta = tableScore - SINGULAR_MARGIN * depth;
+        this.excludedMoves[board.getPly()] = getMove(entry);
+        final int score = search(board, (depth - 1) / 2, extensionBudget, singularBeta - 1, singularBeta);
+        this.excludedMoves[board.getPly()] = PackedMove.NO_MOVE;
+        return score < singularBeta ? getMove(entry) : PackedMove.NO_MOVE;
+    }
+
+    // Null-move pruning: if the player to move could pass and still have a score of at least beta after a shallower
+    // search, a real move would almost surely do as well, so the node is cut off without searching any moves. Returns
+    // the score to cut off with, or a score below beta if the node has to be searched after all.
+    private int searchNullMove(final SearchBoard board, final int depth, final int extensionBudget, final int beta) {
+        final int reduction = depth >= DEEP_NULL_MOVE_DEPTH ? DEEP_NULL_MOVE_REDUCTION : NULL_MOVE_REDUCTION;
+        board.makeNullMove();
+        int score = -search(board, depth - 1 - reduction, extensionBudget, -beta, -beta + 1);
+        board.unmakeNullMove();
+        if(score < beta || this.stopped) {
+            return score;
+        }
+        // Passing is not a move, so a mate found after one proves nothing
+        if(score >= MATE_BOUND) {
+            score = beta;
+        }
+        if(depth < NULL_MOVE_VERIFICATION_DEPTH) {
+            return score;
+        }
+        // Deep cutoffs prune whole subtrees, so they are checked by a reduced search that makes real moves
+        this.nullMoveVerifications++;
+        final int verifiedScore = search(board, depth - reduction, extensionBudget, beta - 1, beta);
+        this.nullMoveVerifications--;
+        return verifiedScore >= beta ? score : verifiedScore;
+    }
+
+    // A null move is not made in check, where passing would be illegal, twice in a row, or while a cutoff is being
+    // verified. Nor is it made when the player to move has only pawns left: in such endgames having to move is often
+    // a disadvantage (zugzwang), and passing would make the position look better than it is.
+    private boolean canMakeNullMove(final SearchBoard board) {
+        final Alliance alliance = board.getMoveMaker();
+        final long pawnsAndKing = board.getPieceBitBoard(alliance, PieceType.PAWN) |
+                                  board.getPieceBitBoard(alliance, PieceType.KING);
+        return this.nullMoveVerifications == 0 && board.getLastMove() != PackedMove.NO_MOVE && !board.isInCheck() &&
+               (board.getOccupancy(alliance) & ~pawnsAndKing) != BitBoards.EMPTY;
+    }
+
+    // Evaluating a position in the middle of an exchange misjudges it, so the leaves of the tree keep searching
+    // captures and promotions until the position is quiet. The player to move does not have to capture, and can
+    // "stand pat" on the position's static evaluation instead, which bounds the score from their side. A capture is
+    // skipped when even winning the captured piece could not raise the score to the window (delta pruning), or when
+    // it loses material in its static exchange, since standing pat is then already better for the player making it.
+    // A player in check cannot stand pat, and searches every move that gets out of check.
+    private int quiescence(final SearchBoard board, int alpha, final int beta) {
+        if(isOutOfBudget()) {
+            return 0;
+        }
+        this.stats.countQuiescenceNode();
+        final int ply = board.getPly();
+        if(ply >= SearchBoard.MAX_PLY - 1) {
+            return evaluate(board);
+        }
+        final boolean isInCheck = board.isInCheck();
+        final MovePicker movePicker = getMovePicker(ply);
+        int standPat = -INFINITY;
+        int bestValue = -INFINITY;
+        if(isInCheck) {
+            movePicker.init(board, PackedMove.NO_MOVE, this.moveOrdering);
+        } else {
+            standPat = evaluate(board);
+            if(standPat >= beta) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+            bestValue = standPat;
+            movePicker.initCaptures(board);
+        }
+
+        int move = movePicker.nextMove();
+        if(isInCheck && move == PackedMove.NO_MOVE) { // Checkmate
+            return -MATE + ply;
+        }
+        for(; move != PackedMove.NO_MOVE; move = movePicker.nextMove()) {
+            if(!isInCheck && !PackedMove.isPromotion(move) &&
+               (standPat + MoveOrdering.capturedPieceValue(board, move) + DELTA_MARGIN <= alpha ||
+                !StaticExchange.isNotLosing(board, move))) {
+                continue;
+            }
+            board.makeMove(move);
+            final int currentValue = -quiescence(board, -beta, -alpha);
+            board.unmakeMove();
+            if(currentValue > bestValue) {
+                bestValue = currentValue;
+                if(currentValue > alpha) {
+                    alpha = currentValue;
+                    if(alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestValue;
+    }
+
+    // Returns the static evaluation from the point of view of the player to move
+    private int evaluate(final SearchBoard board) {
+        final int score = this.boardEvaluator.evaluate(board, 0);
+        return board.isWhiteToMove() ? score : -score;
+    }
+////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private MovePicker getMovePicker(final int ply) {
+        if(this.movePickers[ply] == null) {
+            this.movePickers[ply] = new MovePicker();
+        }
+        return this.movePickers[ply];
+    }
+}
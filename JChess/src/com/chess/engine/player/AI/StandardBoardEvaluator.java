@@ -1,9 +1,14 @@
 package com.chess.engine.player.AI;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
+import com.chess.engine.board.BitBoardPosition;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.Player;
 
 public final class StandardBoardEvaluator implements BoardEvaluator {
@@ -16,14 +21,31 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
     private final static int ATTACK_MULTIPLIER = 2;
     private final static int TWO_BISHOPS_BONUS = 50;
 
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
     @Override
     public int evaluate(final Board board, final int depth) {
         return scorePlayer(board, board.whitePlayer(), depth) -
                scorePlayer(board, board.blackPlayer(), depth);
     }
 
+    // Scores a SearchBoard with the same terms as a Board. Only the player to move can be in check or checkmate, and
+    // mobility and attacks are counted from the pseudo-legal moves, which the bit boards give without making moves.
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        final boolean isInCheck = board.isInCheck();
+        final boolean isInCheckmate = isInCheck && !board.hasLegalMoves();
+        final boolean whiteToMove = board.isWhiteToMove();
+        final int whiteMoves = countPseudoLegalMoves(board, Alliance.WHITE);
+        final int blackMoves = countPseudoLegalMoves(board, Alliance.BLACK);
+        return scorePlayer(board, Alliance.WHITE, depth, !whiteToMove && isInCheck, !whiteToMove && isInCheckmate) +
+               mobility(whiteMoves, blackMoves) -
+               scorePlayer(board, Alliance.BLACK, depth, whiteToMove && isInCheck, whiteToMove && isInCheckmate) -
+               mobility(blackMoves, whiteMoves);
+    }
+
     public int scorePlayer(final Board board, final Player player, final int depth) {
-        return pieceValue(player) +
+        return pieceValue(board, player.getAlliance()) +
                checkmate(player, depth) +
                check(player) +
                 attacks(player) +
@@ -31,25 +53,33 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
                checkmate(player, depth) +
                castle(player) +
                kingSafety(player) +
-               pawnStructure(board, player) +
+               pawnStructure(board, player.getAlliance()) +
                rookStructure(board, player) +
-               knightStructure(player);
+               knightStructure(board, player.getAlliance());
+    }
+
+    // Scores one player of a SearchBoard, leaving out mobility, which is computed for both players at once
+    private static int scorePlayer(final SearchBoard board, final Alliance alliance, final int depth,
+                                   final boolean opponentInCheck, final boolean opponentInCheckmate) {
+        return pieceValue(board, alliance) +
+               (opponentInCheckmate ? 2 * depthBonus(depth) * CHECKMATE_BONUS : 0) +
+               (opponentInCheck ? CHECK_BONUS : 0) +
+               attacks(board, alliance) +
+               (board.isCastled(alliance) ? CASTLE_BONUS : 0) +
+               pawnStructure(board, alliance) +
+               knightStructure(board, alliance);
     }
 
     private static int castle(Player player) {
         return player.isCastled() ? CASTLE_BONUS : 0;
     }
 
-    private static int pieceValue(Player player) {
+    private static int pieceValue(final BitBoardPosition position, final Alliance alliance) {
         int score = 0;
-        int numBishops = 0;
-        for(Piece piece : player.getActivePieces()) {
-            score += piece.getPieceValue();
-            if(piece.getPieceType().isBishop()) {
-                numBishops++;
-            }
+        for(final PieceType pieceType : PIECE_TYPES) {
+            score += BitBoards.count(position.getPieceBitBoard(alliance, pieceType)) * pieceType.getPieceValue();
         }
-        if(numBishops >= 2) {
+        if(BitBoards.count(position.getPieceBitBoard(alliance, PieceType.BISHOP)) >= 2) {
             score += TWO_BISHOPS_BONUS;
         }
         return score;
@@ -74,6 +104,48 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return (int)((player.getLegalMoves().size() * 100.0f) / player.getOpponent().getLegalMoves().size());
     }
 
+    private static int mobility(final int playerMoves, final int opponentMoves) {
+        return MOBILITY_MULTIPLIER * (int)((playerMoves * 100.0f) / Math.max(1, opponentMoves));
+    }
+
+    // Counts the pseudo-legal moves of the given alliance (castling and en passant aside)
+    private static int countPseudoLegalMoves(final SearchBoard board, final Alliance alliance) {
+        final long own = board.getOccupancy(alliance);
+        final long enemy = board.getOccupancy() & ~own;
+        final long empty = ~board.getOccupancy();
+        final long pawns = board.getPieceBitBoard(alliance, PieceType.PAWN);
+        final long singlePushes = (alliance.isWhite() ? pawns >>> 8 : pawns << 8) & empty;
+        final long doublePushes = (alliance.isWhite() ? (singlePushes & BitBoards.THIRD_RANK) >>> 8 :
+                                                        (singlePushes & BitBoards.SIXTH_RANK) << 8) & empty;
+        int count = BitBoards.count(singlePushes) + BitBoards.count(doublePushes);
+        for(long tiles = own & ~pawns; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            final int tile = BitBoards.firstTile(tiles);
+            count += BitBoards.count(attacksFrom(board, board.getPieceType(tile), alliance, tile) & ~own);
+        }
+        for(long tiles = pawns; tiles != BitBoards.EMPTY; tiles = BitBoards.withoutFirstTile(tiles)) {
+            count += BitBoards.count(AttackTables.pawnAttacks(alliance, BitBoards.firstTile(tiles)) & enemy);
+        }
+        return count;
+    }
+
+    private static long attacksFrom(final SearchBoard board, final PieceType pieceType, final Alliance alliance,
+                                    final int tile) {
+        switch(pieceType) {
+            case PAWN:
+                return AttackTables.pawnAttacks(alliance, tile);
+            case KNIGHT:
+                return AttackTables.knightAttacks(tile);
+            case BISHOP:
+                return AttackTables.bishopAttacks(tile, board.getOccupancy());
+            case ROOK:
+                return AttackTables.rookAttacks(tile, board.getOccupancy());
+            case QUEEN:
+                return AttackTables.queenAttacks(tile, board.getOccupancy());
+            default:
+                return AttackTables.kingAttacks(tile);
+        }
+    }
+
     private static int check(Player player) {
         if(player.getOpponent().isInCheck()) {
             return CHECK_BONUS;
@@ -95,20 +167,29 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return attackScore * ATTACK_MULTIPLIER;
     }
 
-    // TODO: Flesh out these methods
-    private static int pawnStructure(final Board board, final Player player) {
-        int score = 0;
-        for(Piece piece : player.getActivePieces()) {
-            if(piece.getPieceType().isPawn()) {
-                if(board.getTile(piece.getPiecePosition() + 8).isTileOccupied()) { // Doubled up pawns are worth half as much
-                    Piece pieceOnTile = board.getTile(piece.getPiecePosition() + 8).getPiece();
-                    if(pieceOnTile.getPieceType().isPawn() && pieceOnTile.getPieceAlliance() == player.getAlliance()) {
-                        score -= 50;
-                    }
+    // Counts the attacks of the given alliance on enemy pieces worth at least as much as the attacker
+    private static int attacks(final SearchBoard board, final Alliance alliance) {
+        final long enemy = board.getOccupancy() & ~board.getOccupancy(alliance);
+        int attackScore = 0;
+        for(long tiles = board.getOccupancy(alliance); tiles != BitBoards.EMPTY;
+            tiles = BitBoards.withoutFirstTile(tiles)) {
+            final int tile = BitBoards.firstTile(tiles);
+            final PieceType movedPiece = board.getPieceType(tile);
+            for(long targets = attacksFrom(board, movedPiece, alliance, tile) & enemy; targets != BitBoards.EMPTY;
+                targets = BitBoards.withoutFirstTile(targets)) {
+                if(movedPiece.getPieceValue() <= board.getPieceType(BitBoards.firstTile(targets)).getPieceValue()) {
+                    attackScore++;
                 }
             }
         }
-        return score;
+        return attackScore * ATTACK_MULTIPLIER;
+    }
+
+    // TODO: Flesh out these methods
+    private static int pawnStructure(final BitBoardPosition position, final Alliance alliance) {
+        final long pawns = position.getPieceBitBoard(alliance, PieceType.PAWN);
+        // Doubled up pawns are worth half as much: counts the pawns with a friendly pawn on the tile below them
+        return -50 * BitBoards.count(pawns & (pawns >>> 8));
     }
     private static int kingSafety(final Player player) {
         return 0;
@@ -116,24 +197,13 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
     private static int rookStructure(final Board board, final Player player) {
         return 0;
     }
-    private static int knightStructure(final Player player) {
+    private static int knightStructure(final BitBoardPosition position, final Alliance alliance) {
+        final long knights = position.getPieceBitBoard(alliance, PieceType.KNIGHT);
         int score = 0;
-        for(Piece piece : player.getActivePieces()) {
-            if(piece.getPieceType().isKnight()) {
-                if(BoardUtils.FIRST_RANK[piece.getPiecePosition()]) {
-                    score -= -100;
-                }
-                if(BoardUtils.EIGHTH_RANK[piece.getPiecePosition()]) {
-                    score -=100;
-                }
-                if(BoardUtils.FIRST_COLUMN[piece.getPiecePosition()]) {
-                    score -=100;
-                }
-                if(BoardUtils.EIGHTH_COLUMN[piece.getPiecePosition()]) {
-                    score -=100;
-                }
-            }
-        }
+        score -= -100 * BitBoards.count(knights & BitBoards.FIRST_RANK);
+        score -= 100 * BitBoards.count(knights & BitBoards.EIGHTH_RANK);
+        score -= 100 * BitBoards.count(knights & BitBoards.FIRST_COLUMN);
+        score -= 100 * BitBoards.count(knights & BitBoards.EIGHTH_COLUMN);
         return score;
     }
 
@@ -0,0 +1,104 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// Static exchange evaluation (SEE) works out what a capture wins or loses once every piece attacking its destination
+// has joined in, without making any moves. The two sides take turns recapturing on the tile, each with its least
+// valuable attacker, and either side may stop whenever going on would lose it material. Pieces are lifted off the
+// occupancy as they capture, so sliding pieces lined up behind them (x-rays) join the exchange in turn. Pins are
+// ignored, so the result is a good guess rather than a proof.
+public final class StaticExchange {
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // An exchange on one tile can have at most one capture per piece on the board
+    private static final int MAX_CAPTURES = 32;
+
+    // Throws a runtime error whenever someone tries to instantiate because we just want it to be a utility class.
+    private StaticExchange() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    // Returns the material the player to move wins with the given capture or promotion once the exchange it starts on
+    // its destination is played out, negative if the capture loses material
+    public static int evaluate(final SearchBoard board, final int move) {
+        final int from = PackedMove.getCurrentCoordinate(move);
+        final int to = PackedMove.getDestinationCoordinate(move);
+        final int[] gain = new int[MAX_CAPTURES];
+        long occupancy = board.getOccupancy() ^ BitBoards.tileMask(from);
+        int capturerValue = board.getPieceType(from).getPieceValue();
+        gain[0] = MoveOrdering.capturedPieceValue(board, move);
+        if (PackedMove.getFlag(move) == PackedMove.EN_PASSANT) {
+            occupancy ^= BitBoards.tileMask(to + (board.isWhiteToMove() ? 8 : -8));
+        }
+        if (PackedMove.isPromotion(move)) {
+            capturerValue = PackedMove.getPromotionPieceType(move).getPieceValue();
+            gain[0] += capturerValue - PieceType.PAWN.getPieceValue();
+        }
+
+        final long diagonalSliders = sliders(board, PieceType.BISHOP);
+        final long straightSliders = sliders(board, PieceType.ROOK);
+        long attackers = AttackTables.attackersTo(board, to, Alliance.WHITE, occupancy) |
+                         AttackTables.attackersTo(board, to, Alliance.BLACK, occupancy);
+        Alliance side = board.getMoveMaker().isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        int depth = 0;
+        while (depth < MAX_CAPTURES - 1) {
+            depth++;
+            // What the side to recapture would win, should it recapture and the exchange stop there
+            gain[depth] = capturerValue - gain[depth - 1];
+            // Neither side can do better by going on, so the rest of the exchange cannot change the result
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                break;
+            }
+            final long sideAttackers = attackers & board.getOccupancy(side);
+            if (sideAttackers == BitBoards.EMPTY) {
+                break;
+            }
+            final PieceType attacker = leastValuableAttacker(board, side, sideAttackers);
+            // The king can only recapture on a tile the other side no longer attacks
+            if (attacker == PieceType.KING && (attackers & ~sideAttackers) != BitBoards.EMPTY) {
+                break;
+            }
+            final long capturer = sideAttackers & board.getPieceBitBoard(side, attacker);
+            occupancy ^= BitBoards.tileMask(BitBoards.firstTile(capturer));
+            // Lifting the capturing piece can uncover a slider behind it
+            attackers = (attackers | (AttackTables.bishopAttacks(to, occupancy) & diagonalSliders) |
+                         (AttackTables.rookAttacks(to, occupancy) & straightSliders)) & occupancy;
+            capturerValue = attacker.getPieceValue();
+            side = side.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        }
+        // The last entry is only what a capture nobody made would have won, so folding starts from the one before it
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    // Returns true if the capture does not lose material. A capture of a piece worth at least as much as the capturing
+    // piece never does, and a king only makes captures the other side cannot answer, so neither needs an exchange.
+    static boolean isNotLosing(final SearchBoard board, final int move) {
+        final PieceType capturer = board.getPieceType(PackedMove.getCurrentCoordinate(move));
+        return PackedMove.isPromotion(move) || capturer == PieceType.KING ||
+               MoveOrdering.capturedPieceValue(board, move) >= capturer.getPieceValue() || evaluate(board, move) >= 0;
+    }
+
+    // Returns the pieces of both alliances that slide like the given piece type, counting the queens with them
+    private static long sliders(final SearchBoard board, final PieceType pieceType) {
+        return board.getPieceBitBoard(Alliance.WHITE, pieceType) | board.getPieceBitBoard(Alliance.BLACK, pieceType) |
+               board.getPieceBitBoard(Alliance.WHITE, PieceType.QUEEN) |
+               board.getPieceBitBoard(Alliance.BLACK, PieceType.QUEEN);
+    }
+
+    private static PieceType leastValuableAttacker(final SearchBoard board, final Alliance side, final long attackers) {
+        for (final PieceType pieceType : PIECE_TYPES) {
+            if ((attackers & board.getPieceBitBoard(side, pieceType)) != BitBoards.EMPTY) {
+                return pieceType;
+            }
+        }
+        throw new IllegalStateException("An attacker has no piece type");
+    }
+}
@@ -0,0 +1,179 @@
+package com.chess.engine.player.AI;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.chess.engine.player.AI.Minimax.MATE_BOUND;
+
+// TranspositionTable remembers what the search found out about a position, keyed by the position's Zobrist key, so a
+// position reached again through a different move order is not searched a second time. It is a fixed-size table of
+// buckets held in one long array. Each bucket has two entries, and each entry is two longs: its data (best move,
+// depth, bound and score packed together) and the key XORed with the data. An entry only matches a key if the two
+// XOR back to it, so an entry half written by one thread while another reads it is seen as a miss rather than as
+// wrong data. This lets several search threads share one table without any locking.
+public final class TranspositionTable {
+
+    // What an entry's score says about the position's true score
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    // Returned by probe when the table holds nothing for a key
+    public static final long NO_ENTRY = 0L;
+
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int LONGS_PER_BUCKET = ENTRIES_PER_BUCKET * LONGS_PER_ENTRY;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+
+    // Data layout: bits 0-18 the packed move, bits 19-26 the depth, bits 27-28 the bound and bits 32-63 the score.
+    // The bound is never 0, so no stored entry has data equal to NO_ENTRY.
+    private static final int MOVE_BITS = 0x7FFFF;
+    private static final int DEPTH_SHIFT = 19;
+    private static final int DEPTH_BITS = 0xFF;
+    private static final int BOUND_SHIFT = 27;
+    private static final int BOUND_BITS = 0x3;
+    private static final int SCORE_SHIFT = 32;
+
+    public static final int MAX_DEPTH = DEPTH_BITS;
+
+    private final long[] table;
+    private final int bucketMask;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    // Constructs a table of at most the given number of megabytes, rounded down to a power of two number of buckets
+    public TranspositionTable(final int sizeInMegaBytes) {
+        if (sizeInMegaBytes < 1) {
+            throw new IllegalArgumentException("A transposition table needs at least one megabyte");
+        }
+        final long buckets = Long.highestOneBit(((long) sizeInMegaBytes << 20) / BYTES_PER_BUCKET);
+        final int numBuckets = (int) Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / LONGS_PER_BUCKET));
+        this.table = new long[numBuckets * LONGS_PER_BUCKET];
+        this.bucketMask = numBuckets - 1;
+    }
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    // Returns the data stored for the key, or NO_ENTRY. The getters below unpack it.
+    public long probe(final long key) {
+        this.probes.increment();
+        final int bucket = bucketIndex(key);
+        for (int i = bucket; i < bucket + LONGS_PER_BUCKET; i += LONGS_PER_ENTRY) {
+            final long data = this.table[i + 1];
+            if (data != NO_ENTRY && (this.table[i] ^ data) == key) {
+                this.hits.increment();
+                return data;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    // Stores what a search of the given depth found out about a position. An entry for the same position is always
+    // replaced; otherwise the new entry takes an empty slot of the bucket, or the slot searched to the lesser depth.
+    public void store(final long key, final int move, final int score, final int depth, final int bound) {
+        final long data = ((long) score << SCORE_SHIFT) |
+                          ((long) bound << BOUND_SHIFT) |
+                          ((long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT) |
+                          (move & MOVE_BITS);
+        final int bucket = bucketIndex(key);
+        int replaced = bucket;
+        for (int i = bucket; i < bucket + LONGS_PER_BUCKET; i += LONGS_PER_ENTRY) {
+            final long entryData = this.table[i + 1];
+            if (entryData == NO_ENTRY || (this.table[i] ^ entryData) == key) {
+                replaced = i;
+                break;
+            }
+            if (getDepth(entryData) < getDepth(this.table[replaced + 1])) {
+                replaced = i;
+            }
+        }
+        final long replacedData = this.table[replaced + 1];
+        if (replacedData != NO_ENTRY && (this.table[replaced] ^ replacedData) != key) {
+            this.collisions.increment();
+        }
+        this.stores.increment();
+        this.table[replaced] = key ^ data;
+        this.table[replaced + 1] = data;
+    }
+
+    // Empties the table, for instance before a new game
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+    }
+
+    private int bucketIndex(final long key) {
+        return ((int) (key >>> 32) & this.bucketMask) * LONGS_PER_BUCKET;
+    }
+
+////// ENTRY DATA //////////////////////////////////////////////////////////////////////////////////////////////////////
+    public static int getMove(final long data) {
+        return (int) data & MOVE_BITS;
+    }
+
+    public static int getDepth(final long data) {
+        return (int) (data >>> DEPTH_SHIFT) & DEPTH_BITS;
+    }
+
+    public static int getBound(final long data) {
+        return (int) (data >>> BOUND_SHIFT) & BOUND_BITS;
+    }
+
+    public static int getScore(final long data) {
+        return (int) (data >> SCORE_SHIFT);
+    }
+
+    // Mate scores count the moves from the root, but the table may be probed at a different ply, so they are stored
+    // counting the moves from the node they belong to instead
+    public static int scoreToTable(final int score, final int ply) {
+        return score >= MATE_BOUND ? score + ply : score <= -MATE_BOUND ? score - ply : score;
+    }
+
+    // Turns a score stored by scoreToTable back into one counting the moves from the root, for a node at the given ply
+    public static int scoreFromTable(final int score, final int ply) {
+        return score >= MATE_BOUND ? score - ply : score <= -MATE_BOUND ? score + ply : score;
+    }
+
+////// STATISTICS //////////////////////////////////////////////////////////////////////////////////////////////////////
+    public int getSizeInMegaBytes() {
+        return (int) (((long) this.table.length * Long.BYTES) >> 20);
+    }
+
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    // Returns the number of probes that found an entry for their position
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getStores() {
+        return this.stores.sum();
+    }
+
+    // Returns the number of stores that overwrote the entry of a different position
+    public long getCollisions() {
+        return this.collisions.sum();
+    }
+
+    public void resetCounters() {
+        this.probes.reset();
+        this.hits.reset();
+        this.stores.reset();
+        this.collisions.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%dMB, %d probes, %d hits, %d stores, %d collisions", getSizeInMegaBytes(),
+                             getProbes(), getHits(), getStores(), getCollisions());
+    }
+}
@@ -1,6 +1,7 @@
 package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.KingSideCastleMove;
@@ -15,9 +16,13 @@ import java.util.Collections;
 import java.util.List;
 
 public class BlackPlayer extends Player {
-    public BlackPlayer(final Board board, final Collection<Move> blackStandardLegalMoves,
-                       final Collection<Move> whiteStandardLegalMoves) {
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+    // Tiles between the king and the rook that must be empty to castle
+    private static final long KING_SIDE_CASTLE_PATH = BitBoards.tileMask(5) | BitBoards.tileMask(6);
+    private static final long QUEEN_SIDE_CASTLE_PATH = BitBoards.tileMask(3) | BitBoards.tileMask(2) |
+                                                       BitBoards.tileMask(1);
+
+    public BlackPlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -41,18 +46,16 @@ public class BlackPlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentsLegals) {
+    protected Collection<Move> calculateKingCastles() {
         final List<Move> kingCastles = new ArrayList<>();
 
         if (this.playerKing.isFirstMove() && !this.isInCheck()) { // king's first move and not in check
             // King's side castle
-            if (!this.board.getTile(5).isTileOccupied() &&
-                !this.board.getTile(6).isTileOccupied()) { // no pieces in the way
+            if ((this.board.getOccupancy() & KING_SIDE_CASTLE_PATH) == BitBoards.EMPTY) { // no pieces in the way
                 final Tile rookTile = this.board.getTile(7);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) { // rook's first move as well
-                    if (Player.calculateAttacksOnTile(5, opponentsLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(6, opponentsLegals).isEmpty() &&
+                    if (!isTileAttacked(5) &&
+                        !isTileAttacked(6) &&
                         rookTile.getPiece().getPieceType().isRook()) { // king isn't moving through check
                         kingCastles.add(new KingSideCastleMove(this.board, this.playerKing,
                                 6, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(),
@@ -61,14 +64,11 @@ public class BlackPlayer extends Player {
                 }
             }
             // Queen's side castle
-            if (!this.board.getTile(3).isTileOccupied() &&
-                !this.board.getTile(2).isTileOccupied() &&
-                !this.board.getTile(1).isTileOccupied()) { // no pieces in the way
+            if ((this.board.getOccupancy() & QUEEN_SIDE_CASTLE_PATH) == BitBoards.EMPTY) { // no pieces in the way
                 final Tile rookTile = this.board.getTile(0);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) { // rook's first move as well
-                    if (Player.calculateAttacksOnTile(3, opponentsLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(2, opponentsLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(1, opponentsLegals).isEmpty() &&
+                    if (!isTileAttacked(3) &&
+                        !isTileAttacked(2) &&
                         rookTile.getPiece().getPieceType().isRook()) { // king isn't moving through check
                         kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing,
                                 2, (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(),
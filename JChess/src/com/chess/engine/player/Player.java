@@ -1,8 +1,11 @@
 package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.LegalityMasks;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
 
@@ -15,34 +18,13 @@ public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
+    // Both are worked out the first time they are asked for, from the standard moves the board keeps
+    private Collection<Move> legalMoves;
+    private LegalityMasks legalityMasks;
 
-    Player(final Board board, final Collection<Move> legalMoves, final Collection<Move> opponentMoves, boolean isCastled) {
+    Player(final Board board) {
         this.board = board;
         this.playerKing = establishKing();
-        // If there is an enemy piece that attacks the player's king, then that player is in check
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
-        // Creates a new list to store the legal moves and the castle moves
-            List<Move> combined = new ArrayList<>();
-            combined.addAll(legalMoves);
-            if(!this.isInCheck) {
-                combined.addAll(calculateKingCastles(legalMoves, opponentMoves));
-            }
-        this.legalMoves = Collections.unmodifiableList(combined);
-    }
-    Player(final Board board, final Collection<Move> legalMoves, final Collection<Move> opponentMoves) {
-        this.board = board;
-        this.playerKing = establishKing();
-        // If there is an enemy piece that attacks the player's king, then that player is in check
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
-        // Creates a new list to store the legal moves and the castle moves
-        List<Move> combined = new ArrayList<>();
-        combined.addAll(legalMoves);
-        if(!this.isInCheck) {
-            combined.addAll(calculateKingCastles(legalMoves, opponentMoves));
-        }
-        this.legalMoves = Collections.unmodifiableList(combined);
     }
 
     // Returns the player's king.
@@ -52,60 +34,81 @@ public abstract class Player {
 
     // Returns a collection of all the legal moves that the player can make.
     public Collection<Move> getLegalMoves() {
+        if (this.legalMoves == null) {
+            // Keeps only the standard moves that do not leave the king in check, then adds the castle moves
+            final Collection<Move> standardLegalMoves = this.board.getStandardLegalMoves(getAlliance());
+            final List<Move> combined = new ArrayList<>(standardLegalMoves.size());
+            for (final Move move : standardLegalMoves) {
+                if (isLegal(move)) {
+                    combined.add(move);
+                }
+            }
+            if (!isInCheck()) {
+                combined.addAll(calculateKingCastles());
+            }
+            this.legalMoves = Collections.unmodifiableList(combined);
+        }
         return this.legalMoves;
     }
 
-    // Calculates and returns a list of moves that are attacking a given piece position
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for (Move move : moves) {
-            if (move.getDestinationCoordinate() == piecePosition) { //getMove method
-                attackMoves.add(move);
-            }
+    // Returns the checkers and pinned pieces of the player's position, working them out on the first call
+    private LegalityMasks getLegalityMasks() {
+        if (this.legalityMasks == null) {
+            this.legalityMasks = new LegalityMasks(this.board, getAlliance());
         }
-        return Collections.unmodifiableList(attackMoves);
+        return this.legalityMasks;
+    }
+
+    // Returns a boolean representing whether or not a standard move leaves the player's king safe
+    private boolean isLegal(final Move move) {
+        final LegalityMasks masks = getLegalityMasks();
+        if (move.getMovedPiece().getPieceType().isKing()) {
+            return masks.isLegalKingMove(move.getDestinationCoordinate());
+        }
+        if (move instanceof PawnEnPassantAttackMove) {
+            return masks.isLegalEnPassant(move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                                          move.getAttackedPiece().getPiecePosition());
+        }
+        return masks.isLegalMove(move.getCurrentCoordinate(), move.getDestinationCoordinate());
+    }
+
+    // Returns a boolean representing whether or not an enemy piece attacks the given tile
+    protected boolean isTileAttacked(final int tileCoordinate) {
+        return getLegalityMasks().isTileAttacked(tileCoordinate);
     }
 
     // Returns the player's king. If there is no king on the board, throws a runtime exception.
     private King establishKing(){
-        for (final Piece piece: getActivePieces()) {
-            if (piece.getPieceType().isKing()) {
-                return (King) piece;
-            }
+        final long kingBitBoard = this.board.getPieceBitBoard(getAlliance(), Piece.PieceType.KING);
+        if (kingBitBoard == BitBoards.EMPTY) {
+            throw new RuntimeException("Invalid board. Needs king.");
         }
-        throw new RuntimeException("Invalid board. Needs king.");
+        return (King) this.board.getTile(BitBoards.firstTile(kingBitBoard)).getPiece();
     }
 
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
     // Returns a boolean representing whether or not the player is in check
     public boolean isInCheck() {
-        return this.isInCheck;
+        return getLegalityMasks().isInCheck();
     }
 
     // Returns a boolean representing whether or not the player is in checkmate
     public boolean isInCheckmate() {
-        return this.isInCheck && !hasEscapeMoves(); // In check and no all moves lead to being in check
+        return isInCheck() && !hasEscapeMoves(); // In check and no all moves lead to being in check
     }
 
     // Returns a boolean representing whether or not the player is in stalemate
     public boolean isInStalemate() {
-        return !this.isInCheck && !hasEscapeMoves(); // Not in check and all moves lead to being in check
+        return !isInCheck() && !hasEscapeMoves(); // Not in check and all moves lead to being in check
     }
 
     // Returns a boolean representing whether or not the king can escape check
     protected boolean hasEscapeMoves() {
-        // For each of the player's legal move, check to see if they can make that move to get out of check. If they
-        // can, then the loop breaks and the method returns true.
-        for (Move move : this.legalMoves) {
-            final MoveTransition transition = makeMove(move); // Make move on new board
-            if (transition.getMoveStatus().isDone()) { // Does the move escape check?
-                return true;
-            }
-        }
-        return false;
+        // Every move in the legal moves leaves the king safe, so any move at all is an escape
+        return !getLegalMoves().isEmpty();
     }
 
     // Returns a MoveTransition, which represents a player making a given move.
@@ -115,17 +118,8 @@ public abstract class Player {
             return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
         }
 
-        // Otherwise, the move might be legal. So, execute the move and examine the new board.
-        final Board transitionBoard = move.execute();
-
-        // Checks to see if new board puts the move making player in check.
-        if(transitionBoard.getCurrentPlayer().getOpponent().isInCheck()) {
-            return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
-        }
-
-        // If the move is legal, and does not put the player in check then it returns a MoveStatus representing a
-        // completed move.
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        // Only moves that keep the player's king safe are legal, so the move can be made straight away
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
     }
 
     public boolean isCastled() {
@@ -136,6 +130,5 @@ public abstract class Player {
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals,
-                                                             Collection<Move> opponentsLegals);
+    protected abstract Collection<Move> calculateKingCastles();
 }
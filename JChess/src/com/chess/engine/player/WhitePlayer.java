@@ -1,6 +1,7 @@
 package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.KingSideCastleMove;
@@ -15,10 +16,13 @@ import java.util.Collections;
 import java.util.List;
 
 public class WhitePlayer extends Player {
+    // Tiles between the king and the rook that must be empty to castle
+    private static final long KING_SIDE_CASTLE_PATH = BitBoards.tileMask(61) | BitBoards.tileMask(62);
+    private static final long QUEEN_SIDE_CASTLE_PATH = BitBoards.tileMask(59) | BitBoards.tileMask(58) |
+                                                       BitBoards.tileMask(57);
 
-    public WhitePlayer(final Board board, final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+    public WhitePlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -42,18 +46,16 @@ public class WhitePlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentsLegals) {
+    protected Collection<Move> calculateKingCastles() {
         final List<Move> kingCastles = new ArrayList<>();
 
         if (this.playerKing.isFirstMove() && !this.isInCheck()) { // king's first move and not in check
             // King's side castle
-            if (!this.board.getTile(61).isTileOccupied() &&
-                !this.board.getTile(62).isTileOccupied()) { // no pieces in the way
+            if ((this.board.getOccupancy() & KING_SIDE_CASTLE_PATH) == BitBoards.EMPTY) { // no pieces in the way
                 final Tile rookTile = this.board.getTile(63);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) { // rook's first move as well
-                    if (Player.calculateAttacksOnTile(61, opponentsLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(62, opponentsLegals).isEmpty() &&
+                    if (!isTileAttacked(61) &&
+                        !isTileAttacked(62) &&
                         rookTile.getPiece().getPieceType().isRook()) { // king isn't moving through check
                         kingCastles.add(new KingSideCastleMove(this.board, this.playerKing,
                                 62, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(),
@@ -62,14 +64,11 @@ public class WhitePlayer extends Player {
                 }
             }
             // Queen's side castle
-            if (!this.board.getTile(59).isTileOccupied() &&
-                !this.board.getTile(58).isTileOccupied() &&
-                !this.board.getTile(57).isTileOccupied()) { // no pieces in the way
+            if ((this.board.getOccupancy() & QUEEN_SIDE_CASTLE_PATH) == BitBoards.EMPTY) { // no pieces in the way
                 final Tile rookTile = this.board.getTile(56);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) { // rook's first move as well
-                    if (Player.calculateAttacksOnTile(59, opponentsLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(58, opponentsLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(57, opponentsLegals).isEmpty() &&
+                    if (!isTileAttacked(59) &&
+                        !isTileAttacked(58) &&
                         rookTile.getPiece().getPieceType().isRook()) { // king isn't moving through check
                         kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing,
                                 58, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(),
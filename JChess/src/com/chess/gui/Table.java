@@ -3,6 +3,7 @@ package com.chess.gui;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.AI.*;
@@ -16,6 +17,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -43,6 +46,12 @@ public class Table extends Observable {
     private Move computerMove;
 
     private boolean highlightLegalMoves;
+    // Kept from one computer move to the next, since most of what one search stores is useful to the next
+    private final TranspositionTable transpositionTable;
+    // Cancels the AI's search, if it is thinking
+    private CancellationToken searchCancellation;
+    // The search pondering on the human's time, in the position the human's expected reply leads to
+    private AIThinkTank ponderTank;
 
     private final static Dimension OUTER_FRAME_DIMENSION = new Dimension(900, 850);
     private final static Dimension BOARD_PANEL_DIMENSION = new Dimension(600, 500);
@@ -73,6 +82,14 @@ public class Table extends Observable {
         this.gameSetup = new GameSetup(this.gameFrame, true);
         this.boardDirection = BoardDirection.NORMAL;
         this.highlightLegalMoves = false;
+        this.transpositionTable = new TranspositionTable();
+        // A search left running after the window closes would keep burning a core
+        this.gameFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                Table.get().cancelSearch();
+            }
+        });
 
         // this.gameFrame.add(this.takenPiecesPanel, BorderLayout.WEST); // TODO: Temporarily removed until fixed
         this.gameFrame.add(this.gameHistoryPanel, BorderLayout.EAST);
@@ -142,6 +159,7 @@ public class Table extends Observable {
         exitMenuItem.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                Table.get().cancelSearch();
                 System.exit(0);
             }
         });
@@ -184,6 +202,8 @@ public class Table extends Observable {
         setupGameMenuItem.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                // The search was for the old setup, so its move is not wanted any more
+                Table.get().cancelSearch();
                 Table.get().getGameSetup().promptUser();
                 Table.get().setupUpdate(Table.get().getGameSetup());
 
@@ -206,10 +226,20 @@ public class Table extends Observable {
         @Override
         public void update(final Observable o, final Object arg) {
             Player currentPlayer = Table.get().getGameBoard().getCurrentPlayer();
+            final String drawReason = getDrawReason(Table.get().getGameBoard());
             if(Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().getCurrentPlayer()) &&
-               !currentPlayer.isInCheckmate() && !currentPlayer.isInStalemate()) { // If AI player and the game isn't over
-                final AIThinkTank thinkTank = new AIThinkTank();
-                thinkTank.execute();
+               !currentPlayer.isInCheckmate() && !currentPlayer.isInStalemate() && drawReason == null) {
+                // If AI player and the game isn't over
+                final AIThinkTank ponderTank = Table.get().ponderTank;
+                Table.get().ponderTank = null;
+                if(ponderTank != null && ponderTank.isSearching(Table.get().getGameBoard())) {
+                    // Ponderhit: the human played the expected reply, so the search already under way is used
+                    ponderTank.ponderHit();
+                } else {
+                    // Any ponder search is cancelled, but what it stored in the transposition table is kept
+                    final AIThinkTank thinkTank = new AIThinkTank(Table.get().getGameBoard(), false);
+                    thinkTank.execute();
+                }
             }
 
             if(currentPlayer.isInCheckmate()) {
@@ -217,12 +247,23 @@ public class Table extends Observable {
                 System.out.println(currentPlayer.toString() + " is in checkmate!");
             } else if(currentPlayer.isInStalemate()) {
                 System.out.println(currentPlayer.toString() + " is in stalemate!");
-            } else if (currentPlayer.getActivePieces().size() == 1 &&
-                       currentPlayer.getOpponent().getActivePieces().size() == 1) {
-                System.out.print("Draw!");
-                System.exit(0);
+            } else if(drawReason != null) {
+                System.out.println("Draw by " + drawReason + "!");
             }
         }
+
+        // Returns why the game is drawn, or null if it is not. Threefold repetition and the fifty-move rule are
+        // claimed as soon as they happen.
+        private static String getDrawReason(final Board board) {
+            if(board.isThreefoldRepetition()) {
+                return "threefold repetition";
+            } else if(board.isFiftyMoveDraw()) {
+                return "the fifty-move rule";
+            } else if(board.getWhitePieces().size() == 1 && board.getBlackPieces().size() == 1) {
+                return "insufficient material";
+            }
+            return null;
+        }
     }
 
     public void updateGameBoard(final Board board) {
@@ -232,6 +273,34 @@ public class Table extends Observable {
         this.computerMove = move;
     }
 
+    private TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    // Stops the AI's search, if it is thinking, and makes sure the move it was looking for is never played
+    private void cancelSearch() {
+        if(this.searchCancellation != null) {
+            this.searchCancellation.cancel();
+        }
+        this.ponderTank = null;
+    }
+
+    // Starts searching, while the human thinks, the position after the reply the AI expects, which is the second move
+    // of the principal variation of the AI's last search. Only the harder levels ponder.
+    private void startPondering(final int[] principalVariation) {
+        final Difficulty difficulty = this.gameSetup.difficulty();
+        if(principalVariation.length < 2 || (difficulty != Difficulty.MEDIUM && difficulty != Difficulty.HARD) ||
+           this.gameSetup.isAIPlayer(this.chessBoard.getCurrentPlayer())) {
+            return;
+        }
+        final Move expectedReply = PackedMove.toMove(this.chessBoard, principalVariation[1]);
+        final MoveTransition transition = this.chessBoard.getCurrentPlayer().makeMove(expectedReply);
+        if(transition.getMoveStatus().isDone()) {
+            this.ponderTank = new AIThinkTank(transition.getTransitionBoard(), true);
+            this.ponderTank.execute();
+        }
+    }
+
     private MoveLog getMoveLog() {
         return this.moveLog;
     }
@@ -250,29 +319,107 @@ public class Table extends Observable {
         notifyObservers(playerType);
     }
 
-    // Manages getting the AI player's move
+    // Manages getting the AI player's move. The progress of the search is shown in the window's title.
+    // A search can also be started while the human is thinking, in the position after the reply the AI expects. It
+    // runs without a time limit until the human moves. If the human plays the expected reply, ponderHit starts the
+    // clock and the search carries on as the AI's real search; otherwise it is cancelled.
     private static class AIThinkTank extends SwingWorker<Move, String> {
-        private AIThinkTank() { }
+        // The harder levels search on every core
+        private static final int SEARCH_THREADS = Runtime.getRuntime().availableProcessors();
+
+        private final Board board;
+        // Cancelled by the Table when the search is no longer wanted
+        private final CancellationToken cancellationToken;
+        // True until ponderHit for a search on the human's time
+        private volatile boolean pondering;
+        // Set by done(). Unlike isDone(), which turns true on the worker thread before done() is even queued, it is
+        // only read and written on the event dispatch thread, so ponderHit and done() agree on who plays the move.
+        private boolean finished;
+        // The principal variation of the deepest search finished so far
+        private volatile int[] principalVariation = new int[0];
+
+        private AIThinkTank(final Board board, final boolean pondering) {
+            this.board = board;
+            this.pondering = pondering;
+            this.cancellationToken = new CancellationToken();
+            Table.get().cancelSearch();
+            Table.get().searchCancellation = this.cancellationToken;
+        }
+
+        // Returns how long the AI may think at the given difficulty
+        private static long getTimeBudgetMillis(final Difficulty difficulty) {
+            if(difficulty.equals(Difficulty.EASY)) {
+                return 1000;
+            } else if(difficulty.equals(Difficulty.MEDIUM)) {
+                return 3000;
+            }
+            return 8000;
+        }
 
         @Override
         protected Move doInBackground() throws Exception {
             MoveStrategy AI;
-            if(Table.get().getGameSetup().difficulty().equals(Difficulty.LIKE_ACTUALLY_REALLY_EASY)) {
+            final Difficulty difficulty = Table.get().getGameSetup().difficulty();
+            // A search on the human's time gets its deadline from ponderHit instead
+            final long timeBudgetMillis = this.pondering ? Minimax.NO_LIMIT : getTimeBudgetMillis(difficulty);
+            if(difficulty.equals(Difficulty.LIKE_ACTUALLY_REALLY_EASY)) {
                 AI = new Rando();
-            } else if (Table.get().getGameSetup().difficulty().equals(Difficulty.EASY)) {
-                AI = new Minimax(4);
-            } else if (Table.get().getGameSetup().difficulty().equals(Difficulty.MEDIUM)) {
-                AI = new Minimax(6);
+            } else if (difficulty.equals(Difficulty.EASY)) {
+                AI = new Minimax(4, timeBudgetMillis, Minimax.NO_LIMIT, Table.get().getTranspositionTable());
+            } else if (difficulty.equals(Difficulty.MEDIUM)) {
+                AI = new Minimax(6, timeBudgetMillis, Minimax.NO_LIMIT, SEARCH_THREADS,
+                                 Table.get().getTranspositionTable());
             } else { // Difficulty.HARD
-                AI = new Minimax(10);
+                AI = new Minimax(Minimax.MAX_DEPTH, timeBudgetMillis, Minimax.NO_LIMIT, SEARCH_THREADS,
+                                 Table.get().getTranspositionTable());
             }
-            final Move bestMove = AI.execute(Table.get().getGameBoard());
+            final Move bestMove = AI.execute(this.board, this.cancellationToken, new SearchListener() {
+                @Override
+                public void searchProgressed(final SearchProgress progress) {
+                    AIThinkTank.this.principalVariation = progress.getPrincipalVariation();
+                    publish(progress.toString());
+                }
+            });
             return bestMove;
         }
+
+        // Returns whether this is a search still going on in the given position
+        private boolean isSearching(final Board board) {
+            return !this.cancellationToken.isCancelled() && this.board.zobristKey() == board.zobristKey();
+        }
+
+        // Turns a search on the human's time into the AI's real search, which now has as long as any other search
+        private void ponderHit() {
+            this.pondering = false;
+            this.cancellationToken.setDeadlineMillis(System.currentTimeMillis() +
+                                                     getTimeBudgetMillis(Table.get().getGameSetup().difficulty()));
+            // A search that reached its full depth already has its move, which done() left for this to play
+            if(this.finished) {
+                playMove();
+            }
+        }
+
+        @Override
+        protected void process(final List<String> progress) {
+            Table.get().gameFrame.setTitle("JChess - " + (this.pondering ? "pondering " : "") +
+                                           progress.get(progress.size() - 1));
+        }
         @Override
         public void done() {
+            this.finished = true;
+            Table.get().gameFrame.setTitle("JChess");
+            // A cancelled search was for a game that has moved on, and a search still pondering waits for the
+            // human's move
+            if(this.cancellationToken.isCancelled() || this.pondering) {
+                return;
+            }
+            playMove();
+        }
+
+        private void playMove() {
             try {
-                final Move bestMove = get();
+                // The move is played on the game's board, which a ponder search did not search itself
+                final Move bestMove = PackedMove.toMove(Table.get().getGameBoard(), PackedMove.fromMove(get()));
 
                 // Update all the gui components
                 Table.get().updateComputerMove(bestMove);
@@ -281,6 +428,7 @@ public class Table extends Observable {
                 Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
                 // Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
                 Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
+                Table.get().startPondering(this.principalVariation);
                 Table.get().moveMadeUpdate(PlayerType.COMPUTER);
 
             } catch (InterruptedException e) {
@@ -494,10 +642,6 @@ public class Table extends Observable {
         private void highlightLegalMoves(final Board board) {
             if (highlightLegalMoves) {
                 for (final Move move : pieceLegalMoves(board)) {
-                    MoveTransition transition = board.getCurrentPlayer().makeMove(move);
-                    if(!transition.getMoveStatus().isDone()){ // Move does something illegal
-                        continue;
-                    }
                     if (move.getDestinationCoordinate() == this.tileID) {
                         try {
                             add(new JLabel(new ImageIcon(ImageIO.read(new File("art/misc/green_dot.png")))));
@@ -513,10 +657,6 @@ public class Table extends Observable {
         private void highlightLegalSquares(final Board board) {
             if (highlightLegalMoves) {
                 for (final Move move : pieceLegalMoves(board)) {
-                    MoveTransition transition = board.getCurrentPlayer().makeMove(move);
-                    if(!transition.getMoveStatus().isDone()){ // Move does something illegal
-                        continue;
-                    }
                     if (move.getDestinationCoordinate() == this.tileID) {
                         try {
                             this.assignTileColor(highlightTileColor.brighter(), highlightTileColor.darker());
@@ -532,7 +672,14 @@ public class Table extends Observable {
         private Collection<Move> pieceLegalMoves(final Board board) {
             if (humanMovedPiece != null &&
                     humanMovedPiece.getPieceAlliance() == board.getCurrentPlayer().getAlliance()) {
-                return humanMovedPiece.calculateLegalMoves(board);
+                // The player's legal moves leave the king safe and include castling
+                final List<Move> pieceMoves = new ArrayList<>();
+                for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+                    if (move.getMovedPiece().equals(humanMovedPiece)) {
+                        pieceMoves.add(move);
+                    }
+                }
+                return pieceMoves;
             }
             return Collections.emptyList();
         }
@@ -0,0 +1,26 @@
+package com.tests.chess.engine;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+
+// BoardFixtures holds the boards and moves the tests in more than one package set up the same way
+public final class BoardFixtures {
+
+    // Throws a runtime error whenever someone tries to instantiate because we just want it to be a utility class.
+    private BoardFixtures() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    // Plays the moves given as pairs of current and destination positions, such as "e2", "e4"
+    public static Board play(final Board board, final String... positions) {
+        Board playedBoard = board;
+        for(int i = 0; i < positions.length; i += 2) {
+            final Move move = Move.MoveFactory.createMove(playedBoard,
+                                                          BoardUtils.getCoordinateAtPosition(positions[i]),
+                                                          BoardUtils.getCoordinateAtPosition(positions[i + 1]));
+            playedBoard = playedBoard.getCurrentPlayer().makeMove(move).getTransitionBoard();
+        }
+        return playedBoard;
+    }
+}
@@ -0,0 +1,227 @@
+package com.tests.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.MoveTransition;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.tests.chess.engine.BoardFixtures.play;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSearchBoard {
+
+    @Test
+    // Counts the leaf positions of the move tree from the starting position, which has well known totals
+    public void initialBoardPerft() {
+        final SearchBoard board = new SearchBoard(Board.createStandardBoard());
+        assertEquals(perft(board, 1), 20);
+        assertEquals(perft(board, 2), 400);
+        assertEquals(perft(board, 3), 8902);
+        assertEquals(perft(board, 4), 197281);
+    }
+
+    @Test
+    // "Kiwipete" has both sides able to castle either way, pins, en passant captures and promotions within a few
+    // plies, so its well known totals catch mistakes in the rules the starting position never reaches
+    public void kiwipetePerft() {
+        final Board board = position("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R", Alliance.WHITE);
+        final SearchBoard searchBoard = new SearchBoard(board);
+        assertEquals(perft(searchBoard, 1), 48);
+        assertEquals(perft(searchBoard, 2), 2039);
+        assertEquals(perft(searchBoard, 3), 97862);
+        assertEquals(perft(board, 1), 48);
+        assertEquals(perft(board, 2), 2039);
+        assertEquals(perft(board, 3), 97862);
+    }
+
+    @Test
+    // An endgame where kings and rooks share ranks and files, so en passant captures can expose a king along a rank
+    // and pieces are pinned and checked along lines
+    public void endgamePerft() {
+        final Board board = position("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8", Alliance.WHITE);
+        final SearchBoard searchBoard = new SearchBoard(board);
+        assertEquals(perft(searchBoard, 1), 14);
+        assertEquals(perft(searchBoard, 2), 191);
+        assertEquals(perft(searchBoard, 3), 2812);
+        assertEquals(perft(board, 1), 14);
+        assertEquals(perft(board, 2), 191);
+        assertEquals(perft(board, 3), 2812);
+    }
+
+    @Test
+    // Making and then unmaking every move at every node of the tree has to leave the board unchanged
+    public void makeAndUnmakeMove() {
+        final SearchBoard board = new SearchBoard(Board.createStandardBoard());
+        final String initialBoard = board.toString();
+        perft(board, 3);
+        assertEquals(board.toString(), initialBoard);
+        assertTrue(board.isWhiteToMove());
+        assertFalse(board.isInCheck());
+        assertTrue(board.hasLegalMoves());
+    }
+
+    @Test
+    // Every legal Move of a board packs into a legal move of the matching SearchBoard and converts back to itself
+    public void packedMovesMatchBoardMoves() {
+        final Board board = Board.createStandardBoard();
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final Set<Integer> boardMoves = new HashSet<>();
+        for(final Move move : board.getCurrentPlayer().getLegalMoves()) {
+            final int packedMove = PackedMove.fromMove(move);
+            assertTrue(searchBoard.isLegal(packedMove));
+            assertEquals(PackedMove.toMove(board, packedMove), move);
+            boardMoves.add(packedMove);
+        }
+        final Set<Integer> searchBoardMoves = new HashSet<>();
+        for(final int move : searchBoard.generateMoves()) {
+            searchBoardMoves.add(move);
+        }
+        assertEquals(searchBoardMoves, boardMoves);
+    }
+
+    @Test
+    // The same position reached by different move orders has the same key, and a SearchBoard making the same moves
+    // keeps the same key as the boards
+    public void zobristKeysFollowMoves() {
+        final Board board = Board.createStandardBoard();
+        final SearchBoard searchBoard = new SearchBoard(board);
+        assertEquals(searchBoard.zobristKey(), board.zobristKey());
+        final Board transposedBoard = play(board, "d2", "d3", "e7", "e6", "e2", "e3");
+        assertEquals(play(board, "e2", "e3", "e7", "e6", "d2", "d3").zobristKey(), transposedBoard.zobristKey());
+        assertNotEquals(play(board, "e2", "e3", "e7", "e6").zobristKey(), transposedBoard.zobristKey());
+        // Knights going out and back restore the starting position
+        assertEquals(play(board, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8").zobristKey(), board.zobristKey());
+
+        final String[] positions = {"e2", "e4", "d7", "d5", "e4", "d5", "g8", "f6"};
+        Board playedBoard = board;
+        for(int i = 0; i < positions.length; i += 2) {
+            final Move move = Move.MoveFactory.createMove(playedBoard,
+                                                          BoardUtils.getCoordinateAtPosition(positions[i]),
+                                                          BoardUtils.getCoordinateAtPosition(positions[i + 1]));
+            searchBoard.makeMove(PackedMove.fromMove(move));
+            playedBoard = move.execute();
+            assertEquals(searchBoard.zobristKey(), playedBoard.zobristKey());
+        }
+        for(int i = 0; i < positions.length; i += 2) {
+            searchBoard.unmakeMove();
+        }
+        assertEquals(searchBoard.zobristKey(), board.zobristKey());
+    }
+
+    @Test
+    // Knights going out and back repeat the starting position, which both boards have to notice, in the game's
+    // history as well as on the search path. A pawn move means no earlier position can come back.
+    public void repetitionsAndHalfmoveClock() {
+        final Board board = Board.createStandardBoard();
+        final Board repeatedBoard = play(board, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+        assertEquals(repeatedBoard.getHalfmoveClock(), 4);
+        assertTrue(repeatedBoard.isRepetition());
+        assertFalse(repeatedBoard.isThreefoldRepetition());
+        assertTrue(play(repeatedBoard, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8").isThreefoldRepetition());
+        final Board pawnMovedBoard = play(repeatedBoard, "e2", "e4");
+        assertEquals(pawnMovedBoard.getHalfmoveClock(), 0);
+        assertEquals(pawnMovedBoard.getPositionHistory().length, 0);
+
+        final SearchBoard searchBoard = new SearchBoard(play(board, "g1", "f3", "g8", "f6"));
+        assertFalse(searchBoard.isRepetition());
+        final String[] positions = {"f3", "g1", "f6", "g8"};
+        Board playedBoard = play(board, "g1", "f3", "g8", "f6");
+        for(int i = 0; i < positions.length; i += 2) {
+            final Move move = Move.MoveFactory.createMove(playedBoard,
+                                                          BoardUtils.getCoordinateAtPosition(positions[i]),
+                                                          BoardUtils.getCoordinateAtPosition(positions[i + 1]));
+            searchBoard.makeMove(PackedMove.fromMove(move));
+            playedBoard = move.execute();
+        }
+        assertTrue(searchBoard.isRepetition());
+        assertEquals(searchBoard.getHalfmoveClock(), 4);
+        searchBoard.unmakeMove();
+        assertFalse(searchBoard.isRepetition());
+    }
+
+    // Builds the position given as the piece placement field of a FEN string. Pawns on their starting rank, and kings
+    // and rooks on their starting tiles, have not moved yet, so they may still jump or castle.
+    private static Board position(final String placement, final Alliance moveMaker) {
+        final Board.Builder builder = new Board.Builder();
+        int tile = 0;
+        for(final char c : placement.toCharArray()) {
+            if(c == '/') {
+                continue;
+            }
+            if(Character.isDigit(c)) {
+                tile += c - '0';
+                continue;
+            }
+            final Alliance alliance = Character.isUpperCase(c) ? Alliance.WHITE : Alliance.BLACK;
+            final boolean isWhite = alliance.isWhite();
+            final Piece piece;
+            switch(Character.toLowerCase(c)) {
+                case 'p':
+                    piece = new Pawn(tile, alliance,
+                                     isWhite ? BoardUtils.SECOND_RANK[tile] : BoardUtils.SEVENTH_RANK[tile]);
+                    break;
+                case 'n':
+                    piece = new Knight(tile, alliance, false);
+                    break;
+                case 'b':
+                    piece = new Bishop(tile, alliance, false);
+                    break;
+                case 'r':
+                    piece = new Rook(tile, alliance, tile == (isWhite ? 56 : 0) || tile == (isWhite ? 63 : 7));
+                    break;
+                case 'q':
+                    piece = new Queen(tile, alliance, false);
+                    break;
+                default:
+                    piece = new King(tile, alliance, tile == (isWhite ? 60 : 4));
+                    break;
+            }
+            builder.setPiece(piece);
+            tile++;
+        }
+        builder.setMoveMaker(moveMaker);
+        return builder.build();
+    }
+
+    private static long perft(final Board board, final int depth) {
+        if(depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for(final Move move : board.getCurrentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            if(transition.getMoveStatus().isDone()) {
+                nodes += perft(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    private static long perft(final SearchBoard board, final int depth) {
+        if(depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for(final int move : board.generateMoves()) {
+            board.makeMove(move);
+            nodes += perft(board, depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.tests.chess.engine.player.AI;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.AI.CancellationToken;
+import com.chess.engine.player.AI.ForkJoinMinimax;
+import com.chess.engine.player.AI.SearchListener;
+import com.chess.engine.player.AI.SearchProgress;
+import org.junit.jupiter.api.Test;
+
+import static com.tests.chess.engine.BoardFixtures.play;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestForkJoinMinimax {
+
+    @Test
+    // The search's result may not depend on how its threads are scheduled, so one thread and eight find the same
+    // move, score and line after searching the same number of nodes, and so does the same search run again. Deep
+    // enough, some younger brothers are cancelled part way by a cutoff, and their nodes must not count.
+    public void sameResultOnAnyNumberOfThreads() {
+        final Board board = play(Board.createStandardBoard(), "e2", "e4", "e7", "e5", "g1", "f3", "b8", "c6",
+                                 "f1", "c4", "g8", "f6");
+        final SearchProgress serial = search(new ForkJoinMinimax(6, 1), board);
+        final ForkJoinMinimax parallelSearch = new ForkJoinMinimax(6, 8);
+        final SearchProgress parallel = search(parallelSearch, board);
+        final SearchProgress repeated = search(parallelSearch, board);
+        for(final SearchProgress progress : new SearchProgress[] {parallel, repeated}) {
+            assertEquals(progress.getDepth(), 6);
+            assertEquals(progress.getBestMove(), serial.getBestMove());
+            assertEquals(progress.getScore(), serial.getScore());
+            assertArrayEquals(progress.getPrincipalVariation(), serial.getPrincipalVariation());
+            assertEquals(progress.getNodes(), serial.getNodes());
+        }
+    }
+
+    // Runs the search and returns what it reported for the deepest depth it finished
+    private static SearchProgress search(final ForkJoinMinimax forkJoinMinimax, final Board board) {
+        final SearchProgress[] lastProgress = new SearchProgress[1];
+        final Move move = forkJoinMinimax.execute(board, new CancellationToken(), new SearchListener() {
+            @Override
+            public void searchProgressed(final SearchProgress progress) {
+                lastProgress[0] = progress;
+            }
+        });
+        assertNotNull(move);
+        return lastProgress[0];
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.tests.chess.engine.player.AI;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.AI.StaticExchange;
+import org.junit.jupiter.api.Test;
+
+import static com.chess.engine.Alliance.BLACK;
+import static com.chess.engine.Alliance.WHITE;
+import static com.tests.chess.engine.BoardFixtures.play;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestStaticExchange {
+
+    @Test
+    // A rook takes an undefended pawn
+    public void undefendedCapture() {
+        final SearchBoard board = position(WHITE,
+                new King(tile("b8"), BLACK), new Rook(tile("d8"), BLACK), new Pawn(tile("b7"), BLACK),
+                new Pawn(tile("c7"), BLACK), new Pawn(tile("h7"), BLACK), new Pawn(tile("a6"), BLACK),
+                new Pawn(tile("e5"), BLACK),
+                new Pawn(tile("a3"), WHITE), new Pawn(tile("g3"), WHITE), new Pawn(tile("b2"), WHITE),
+                new Pawn(tile("c2"), WHITE), new Pawn(tile("h2"), WHITE), new King(tile("c1"), WHITE),
+                new Rook(tile("e1"), WHITE));
+        assertEquals(StaticExchange.evaluate(board, move(board, "e1", "e5")), 100);
+    }
+
+    @Test
+    // A knight takes a pawn defended by a knight and a bishop. Rooks and the queen line up behind both sides'
+    // attackers, so the knight is lost for the pawn however the exchange goes on.
+    public void defendedCaptureWithXRays() {
+        final SearchBoard board = position(WHITE,
+                new King(tile("b8"), BLACK), new Rook(tile("d8"), BLACK), new Queen(tile("h8"), BLACK),
+                new Pawn(tile("b7"), BLACK), new Pawn(tile("c7"), BLACK), new Knight(tile("d7"), BLACK),
+                new Pawn(tile("h7"), BLACK), new Pawn(tile("a6"), BLACK), new Bishop(tile("f6"), BLACK),
+                new Pawn(tile("e5"), BLACK),
+                new Pawn(tile("a3"), WHITE), new Knight(tile("d3"), WHITE), new Pawn(tile("g3"), WHITE),
+                new Pawn(tile("b2"), WHITE), new Pawn(tile("c2"), WHITE), new Rook(tile("e2"), WHITE),
+                new Bishop(tile("g2"), WHITE), new Pawn(tile("h2"), WHITE), new King(tile("c1"), WHITE),
+                new Queen(tile("e1"), WHITE));
+        assertEquals(StaticExchange.evaluate(board, move(board, "d3", "e5")), -200);
+    }
+
+    @Test
+    // A pawn takes a pawn that a pawn defends, which trades them evenly
+    public void evenTrade() {
+        final SearchBoard board = position(WHITE,
+                new King(tile("e8"), BLACK), new Pawn(tile("d5"), BLACK), new Pawn(tile("c6"), BLACK),
+                new King(tile("e1"), WHITE), new Pawn(tile("e4"), WHITE));
+        assertEquals(StaticExchange.evaluate(board, move(board, "e4", "d5")), 0);
+    }
+
+    @Test
+    // A rook takes a pawn that a rook defends, and the queen behind the first rook wins the exchange back
+    public void queenBehindRook() {
+        final SearchBoard board = position(WHITE,
+                new King(tile("e8"), BLACK), new Rook(tile("d7"), BLACK), new Pawn(tile("d5"), BLACK),
+                new Rook(tile("d2"), WHITE), new Queen(tile("d1"), WHITE), new King(tile("h1"), WHITE));
+        assertEquals(StaticExchange.evaluate(board, move(board, "d2", "d5")), 100);
+    }
+
+    @Test
+    // An en passant capture takes a pawn that is not on its destination, which both of black's pawns defend
+    public void enPassantCapture() {
+        final Board board = play(Board.createStandardBoard(), "e2", "e4", "a7", "a6", "e4", "e5", "d7", "d5");
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int enPassantCapture = move(searchBoard, "e5", "d6");
+        assertEquals(PackedMove.getFlag(enPassantCapture), PackedMove.EN_PASSANT);
+        assertEquals(StaticExchange.evaluate(searchBoard, enPassantCapture), 0);
+    }
+
+    @Test
+    // Promoting wins the difference between a queen and a pawn, and a capturing promotion wins the captured piece as
+    // well, but a queen that is taken straight away loses the pawn
+    public void promotions() {
+        final SearchBoard board = position(WHITE,
+                new Rook(tile("a8"), BLACK), new King(tile("h8"), BLACK),
+                new Pawn(tile("b7"), WHITE), new King(tile("h1"), WHITE));
+        assertEquals(StaticExchange.evaluate(board, move(board, "b7", "a8")), 1300);
+        assertEquals(StaticExchange.evaluate(board, move(board, "b7", "b8")), -100);
+    }
+
+    private static SearchBoard position(final Alliance moveMaker, final Piece... pieces) {
+        final Board.Builder builder = new Board.Builder();
+        for(final Piece piece : pieces) {
+            builder.setPiece(piece);
+        }
+        builder.setMoveMaker(moveMaker);
+        return new SearchBoard(builder.build());
+    }
+
+    private static int tile(final String position) {
+        return BoardUtils.getCoordinateAtPosition(position);
+    }
+
+    // Returns the legal move between the two positions, promoting to a queen if it promotes
+    private static int move(final SearchBoard board, final String from, final String to) {
+        for(final int move : board.generateMoves()) {
+            if(PackedMove.getCurrentCoordinate(move) == tile(from) &&
+               PackedMove.getDestinationCoordinate(move) == tile(to) &&
+               (!PackedMove.isPromotion(move) || PackedMove.getPromotionPieceType(move) == PieceType.QUEEN)) {
+                return move;
+            }
+        }
+        throw new IllegalArgumentException("No legal move from " + from + " to " + to);
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.tests.chess.engine.player.AI;
+
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.player.AI.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static com.chess.engine.player.AI.Minimax.MATE;
+import static com.chess.engine.player.AI.TranspositionTable.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTranspositionTable {
+
+    // Keys whose upper halves are equal fall into the same bucket
+    private static final long FIRST_KEY = (1L << 32) | 1;
+    private static final long SECOND_KEY = (1L << 32) | 2;
+    private static final long THIRD_KEY = (1L << 32) | 3;
+
+    private static final int MOVE = PackedMove.createMove(52, 36, PackedMove.PAWN_JUMP);
+
+    @Test
+    // Everything stored for a key comes back unchanged, negative scores included, and nothing comes back for a key
+    // that was never stored
+    public void storeAndProbe() {
+        final TranspositionTable table = new TranspositionTable(1);
+        assertEquals(table.probe(FIRST_KEY), NO_ENTRY);
+        table.store(FIRST_KEY, MOVE, -250, 7, LOWER_BOUND);
+        final long data = table.probe(FIRST_KEY);
+        assertNotEquals(data, NO_ENTRY);
+        assertEquals(getMove(data), MOVE);
+        assertEquals(getScore(data), -250);
+        assertEquals(getDepth(data), 7);
+        assertEquals(getBound(data), LOWER_BOUND);
+        // Depths are clamped to what an entry can hold
+        table.store(FIRST_KEY, MOVE, 0, MAX_DEPTH + 10, EXACT);
+        assertEquals(getDepth(table.probe(FIRST_KEY)), MAX_DEPTH);
+        assertEquals(table.getProbes(), 3);
+        assertEquals(table.getHits(), 2);
+    }
+
+    @Test
+    // An entry only matches the key it was stored for, and an entry whose two halves were written by different
+    // stores, as a race between two threads could leave it, matches no key at all
+    public void rejectsForeignAndTornEntries() throws Exception {
+        final TranspositionTable table = new TranspositionTable(1);
+        table.store(FIRST_KEY, MOVE, 100, 5, EXACT);
+        assertEquals(table.probe(SECOND_KEY), NO_ENTRY);
+
+        final Field tableField = TranspositionTable.class.getDeclaredField("table");
+        tableField.setAccessible(true);
+        final long[] entries = (long[]) tableField.get(table);
+        for(int i = 1; i < entries.length; i += 2) {
+            if(entries[i] != NO_ENTRY) {
+                // The data of another store lands next to this store's checksum
+                entries[i] ^= 1L << 32;
+            }
+        }
+        assertEquals(table.probe(FIRST_KEY), NO_ENTRY);
+    }
+
+    @Test
+    // A bucket holds two entries. A third position replaces the one searched less deep, while a position stored
+    // again always replaces its own entry.
+    public void bucketReplacement() {
+        final TranspositionTable table = new TranspositionTable(1);
+        table.store(FIRST_KEY, MOVE, 10, 5, EXACT);
+        table.store(SECOND_KEY, MOVE, 20, 3, EXACT);
+        table.store(THIRD_KEY, MOVE, 30, 4, EXACT);
+        assertEquals(getScore(table.probe(FIRST_KEY)), 10);
+        assertEquals(table.probe(SECOND_KEY), NO_ENTRY);
+        assertEquals(getScore(table.probe(THIRD_KEY)), 30);
+        assertEquals(table.getCollisions(), 1);
+
+        table.store(FIRST_KEY, MOVE, 40, 1, UPPER_BOUND);
+        final long data = table.probe(FIRST_KEY);
+        assertEquals(getScore(data), 40);
+        assertEquals(getDepth(data), 1);
+        assertEquals(getScore(table.probe(THIRD_KEY)), 30);
+        assertEquals(table.getCollisions(), 1);
+
+        table.clear();
+        assertEquals(table.probe(FIRST_KEY), NO_ENTRY);
+        assertEquals(table.probe(THIRD_KEY), NO_ENTRY);
+    }
+
+    @Test
+    // A mate found five plies below a node at ply 3 is stored as a mate in five from that node, and is a mate
+    // eight plies from the root when the same position turns up at ply 3 again, or ten at ply 5
+    public void mateScoresCountFromTheNode() {
+        assertEquals(scoreToTable(MATE - 8, 3), MATE - 5);
+        assertEquals(scoreFromTable(MATE - 5, 3), MATE - 8);
+        assertEquals(scoreFromTable(MATE - 5, 5), MATE - 10);
+        assertEquals(scoreToTable(-MATE + 8, 3), -MATE + 5);
+        assertEquals(scoreFromTable(-MATE + 5, 5), -MATE + 10);
+        // Other scores do not depend on the ply
+        assertEquals(scoreToTable(350, 12), 350);
+        assertEquals(scoreFromTable(-350, 12), -350);
+    }
+
+}